@@ -0,0 +1,16 @@
+package com.CodeWithRishu.SnapBuy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.retrieval")
+public class ChatRetrievalProp {
+    private int topK = 3;
+    private int candidatesPerSource = 10;
+    private double similarityThreshold = 0.5;
+    private int rrfK = 60;
+    private boolean inStockOnly = false;
+}
@@ -0,0 +1,29 @@
+package com.CodeWithRishu.SnapBuy.config;
+
+import com.CodeWithRishu.SnapBuy.service.CachingEmbeddingModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@Slf4j
+public class EmbeddingCacheConfig {
+
+    @Bean
+    public static BeanPostProcessor cachingEmbeddingModelPostProcessor(Environment environment) {
+        int maxEntries = environment.getProperty("vector-index.embedding-cache-size", Integer.class, 10_000);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof EmbeddingModel model && !(bean instanceof CachingEmbeddingModel)) {
+                    log.info("Wrapping embedding model '{}' with a {}-entry content-hash cache", beanName, maxEntries);
+                    return new CachingEmbeddingModel(model, maxEntries);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.CodeWithRishu.SnapBuy.config;
+
+import com.CodeWithRishu.SnapBuy.service.LocalHnswVectorStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "vector-index.mode", havingValue = "local")
+@Slf4j
+public class LocalVectorStoreConfig {
+
+    private final VectorIndexProp prop;
+    private final ObjectProvider<LocalHnswVectorStore> storeProvider;
+    private long snapshotModificationCount = -1;
+
+    public LocalVectorStoreConfig(VectorIndexProp prop, ObjectProvider<LocalHnswVectorStore> storeProvider) {
+        this.prop = prop;
+        this.storeProvider = storeProvider;
+    }
+
+    @Bean
+    @Primary
+    public LocalHnswVectorStore localHnswVectorStore(EmbeddingModel embeddingModel) {
+        LocalHnswVectorStore store = new LocalHnswVectorStore(embeddingModel, prop.getHnswMaxConnections(),
+                prop.getHnswEfConstruction(), prop.getHnswEfSearch(), prop.getHnswCompactTombstoneRatio());
+        Path snapshot = Path.of(prop.getLocalSnapshotPath());
+        if (Files.exists(snapshot)) {
+            store.restore(snapshot);
+        }
+        snapshotModificationCount = store.modificationCount();
+        log.info("Using in-process HNSW vector store (snapshot: {})", snapshot);
+        return store;
+    }
+
+    @Scheduled(fixedDelayString = "${vector-index.local-snapshot-interval-ms:60000}")
+    public void snapshot() {
+        LocalHnswVectorStore store = storeProvider.getIfAvailable();
+        if (store != null && store.modificationCount() != snapshotModificationCount) {
+            snapshotModificationCount = store.modificationCount();
+            store.snapshot(Path.of(prop.getLocalSnapshotPath()));
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+}
@@ -60,6 +60,13 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.GET, "/api/products/pagination-sorting").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/products/search").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/products/browse").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/products/suggest").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/products/stock").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/products/best-sellers", "/api/products/trending",
+                                "/api/products/trending-categories", "/api/products/*/related").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/products/*/image").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/payments/webhook").permitAll()
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/api/ott/**",
@@ -142,7 +149,7 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList(frontendUrl, backendUrl + port));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Cache-Control"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,25 @@
+package com.CodeWithRishu.SnapBuy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "vector-index")
+public class VectorIndexProp {
+    private int embeddingCacheSize = 10_000;
+    private int batchSize = 64;
+    private long flushIntervalMs = 2000;
+    private long retryBackoffMs = 1000;
+    private long retryMaxBackoffMs = 60_000;
+    private int retryMaxAttempts = 10;
+    private int reconcileChunkSize = 200;
+    private int reconcileParallelism = 4;
+    private String mode = "atlas";
+    private String localSnapshotPath = "data/vector-index.snap";
+    private int hnswMaxConnections = 16;
+    private int hnswEfConstruction = 100;
+    private int hnswEfSearch = 64;
+    private double hnswCompactTombstoneRatio = 0.3;
+}
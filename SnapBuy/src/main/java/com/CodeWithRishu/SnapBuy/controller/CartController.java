@@ -0,0 +1,62 @@
+package com.CodeWithRishu.SnapBuy.controller;
+
+import com.CodeWithRishu.SnapBuy.dto.request.CartCheckoutRequest;
+import com.CodeWithRishu.SnapBuy.dto.request.CartItemRequest;
+import com.CodeWithRishu.SnapBuy.dto.response.CartResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.OrderResponse;
+import com.CodeWithRishu.SnapBuy.service.CartService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cart")
+@RequiredArgsConstructor
+@PreAuthorize("hasAuthority('ROLE_USER')")
+public class CartController {
+
+    private final CartService cartService;
+
+    @GetMapping
+    public ResponseEntity<CartResponse> getCart(Authentication authentication) {
+        return ResponseEntity.ok(cartService.getCart(authentication.getName()));
+    }
+
+    @PutMapping
+    public ResponseEntity<CartResponse> replaceCart(@RequestBody List<@Valid CartItemRequest> items, Authentication authentication) {
+        return ResponseEntity.ok(cartService.replaceCart(authentication.getName(), items));
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<CartResponse> addItem(@Valid @RequestBody CartItemRequest request, Authentication authentication) {
+        return ResponseEntity.ok(cartService.addItem(authentication.getName(), request));
+    }
+
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<CartResponse> updateItem(@PathVariable long productId, @RequestParam int quantity, Authentication authentication) {
+        return ResponseEntity.ok(cartService.updateItem(authentication.getName(), productId, quantity));
+    }
+
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<CartResponse> removeItem(@PathVariable long productId, Authentication authentication) {
+        return ResponseEntity.ok(cartService.removeItem(authentication.getName(), productId));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clearCart(Authentication authentication) {
+        cartService.clearCart(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/checkout")
+    public ResponseEntity<OrderResponse> checkout(@Valid @RequestBody CartCheckoutRequest request, Authentication authentication) {
+        return new ResponseEntity<>(cartService.checkout(authentication.getName(), request), HttpStatus.CREATED);
+    }
+
+}
@@ -1,14 +1,26 @@
 package com.CodeWithRishu.SnapBuy.controller;
 
+import com.CodeWithRishu.SnapBuy.dto.BulkFormat;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
 import com.CodeWithRishu.SnapBuy.dto.request.OrderRequest;
+import com.CodeWithRishu.SnapBuy.dto.request.OrderStatusUpdateRequest;
 import com.CodeWithRishu.SnapBuy.dto.response.OrderResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.OrderStatusUpdateResponse;
+import com.CodeWithRishu.SnapBuy.service.OrderExportService;
 import com.CodeWithRishu.SnapBuy.service.OrderService;
+import com.CodeWithRishu.SnapBuy.service.OrderStatusService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,6 +29,8 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderStatusService orderStatusService;
+    private final OrderExportService orderExportService;
 
     @PostMapping("place")
     @PreAuthorize("hasAuthority('ROLE_USER')")
@@ -32,4 +46,24 @@ public class OrderController {
         return new ResponseEntity<>(orderResponseList, HttpStatus.OK);
     }
 
-}
\ No newline at end of file
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<OrderStatus> status) {
+        StreamingResponseBody body = out -> orderExportService.export(out, from, to, status);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(BulkFormat.CSV.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"")
+                .body(body);
+    }
+
+    @PatchMapping("/status")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<OrderStatusUpdateResponse> updateStatuses(@Valid @RequestBody OrderStatusUpdateRequest request) {
+        OrderStatusUpdateResponse response = orderStatusService.transition(request.orderIds(), request.status());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+}
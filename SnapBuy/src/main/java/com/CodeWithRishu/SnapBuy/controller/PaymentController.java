@@ -3,30 +3,48 @@ package com.CodeWithRishu.SnapBuy.controller;
 import com.CodeWithRishu.SnapBuy.dto.request.StripeRequest;
 import com.CodeWithRishu.SnapBuy.dto.response.StripeResponse;
 import com.CodeWithRishu.SnapBuy.service.PaymentService;
-import com.stripe.exception.StripeException;
+import com.CodeWithRishu.SnapBuy.service.PaymentWebhookService;
+import com.stripe.exception.SignatureVerificationException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/payments")
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentWebhookService paymentWebhookService;
 
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @PostMapping("/stripe")
-    public ResponseEntity<StripeResponse> initiateStripePayment(@RequestBody StripeRequest stripeRequest) throws StripeException {
-        StripeResponse stripeResponse = paymentService.createOrderByStripe(stripeRequest);
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .body(stripeResponse);
+    public CompletableFuture<ResponseEntity<StripeResponse>> initiateStripePayment(@RequestBody StripeRequest stripeRequest,
+                                                                                   Authentication authentication) {
+        return paymentService.createOrderByStripe(stripeRequest, authentication.getName())
+                .thenApply(stripeResponse -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(stripeResponse));
+    }
+
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> handleStripeWebhook(@RequestBody String payload,
+                                                    @RequestHeader("Stripe-Signature") String signature) {
+        try {
+            paymentWebhookService.ingest(payload, signature);
+        } catch (SignatureVerificationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok().build();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.CodeWithRishu.SnapBuy.controller;
+
+import com.CodeWithRishu.SnapBuy.dto.BulkFormat;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductImportResponse;
+import com.CodeWithRishu.SnapBuy.service.ProductBulkService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/products")
+@PreAuthorize("hasAuthority('ROLE_ADMIN')")
+public class ProductBulkController {
+
+    private final ProductBulkService productBulkService;
+
+    @PostMapping("/import")
+    public ResponseEntity<ProductImportResponse> importProducts(@RequestPart("file") MultipartFile file,
+                                                                @RequestParam(required = false) String format) throws IOException {
+        BulkFormat bulkFormat = resolveFormat(format, file.getOriginalFilename());
+        return new ResponseEntity<>(productBulkService.startImport(file, bulkFormat), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/import/status")
+    public ResponseEntity<ProductImportResponse> importStatus() {
+        return ResponseEntity.ok(productBulkService.status());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "csv") String format) {
+        BulkFormat bulkFormat = resolveFormat(format, null);
+        StreamingResponseBody body = out -> productBulkService.export(out, bulkFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(bulkFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + bulkFormat.extension() + "\"")
+                .body(body);
+    }
+
+    private static BulkFormat resolveFormat(String format, String fileName) {
+        try {
+            return BulkFormat.resolve(format, fileName);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+        }
+    }
+}
@@ -1,18 +1,47 @@
 package com.CodeWithRishu.SnapBuy.controller;
 
+import com.CodeWithRishu.SnapBuy.dto.response.CategoryTrendResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductBrowseResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductStockResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductSummaryResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.StockShardResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.SuggestionResponse;
 import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.service.CatalogFacetIndex;
+import com.CodeWithRishu.SnapBuy.service.CatalogSnapshotService;
+import com.CodeWithRishu.SnapBuy.service.CatalogVersion;
+import com.CodeWithRishu.SnapBuy.service.InventoryReservationService;
+import com.CodeWithRishu.SnapBuy.service.PrecompressedResponseCache;
+import com.CodeWithRishu.SnapBuy.service.ProductImageService;
+import com.CodeWithRishu.SnapBuy.service.ProductPopularityService;
+import com.CodeWithRishu.SnapBuy.service.ProductRecommendationService;
 import com.CodeWithRishu.SnapBuy.service.ProductService;
+import com.CodeWithRishu.SnapBuy.service.ProductSuggestIndex;
+import com.CodeWithRishu.SnapBuy.service.ShardedStockService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequiredArgsConstructor
@@ -20,7 +49,26 @@ import java.util.List;
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final int MAX_BROWSE_SIZE = 100;
+
     private final ProductService productService;
+    private final ShardedStockService shardedStockService;
+    private final InventoryReservationService inventoryReservationService;
+    private final ProductImageService productImageService;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductPopularityService productPopularityService;
+    private final ProductRecommendationService productRecommendationService;
+    private final PrecompressedResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product-image.max-age-seconds:3600}")
+    private long imageMaxAgeSeconds;
+
+    @Value("${suggest.max-age-seconds:60}")
+    private long suggestMaxAgeSeconds;
 
     @GetMapping
     public ResponseEntity<List<Product>> getAllProducts() {
@@ -28,28 +76,114 @@ public class ProductController {
     }
 
     @GetMapping("/pagination-sorting")
-    public ResponseEntity<Page<Product>> getProductsByPaginationAndSorting(
+    public ResponseEntity<byte[]> getProductsByPaginationAndSorting(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
-        Page<Product> productPage = productService.getProductsByPaginationAndSorting(page, size, sortBy, sortDirection);
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        String key = "products:page:" + sortBy + ':' + sortDirection + ':' + size + ':' + page;
+        return precompressed(webRequest, acceptEncoding, CacheControl.noCache().cachePublic(), key,
+                () -> catalogSnapshotService.page(page, size, sortBy, sortDirection)
+                        .orElseGet(() -> json(productService.getProductsByPaginationAndSorting(page, size, sortBy, sortDirection))));
+    }
+
+    @GetMapping("/browse")
+    public ResponseEntity<ProductBrowseResponse> browseProducts(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(required = false) List<String> availability,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "24") int size) {
+        Map<String, List<String>> selected = new HashMap<>();
+        selected.put(CatalogFacetIndex.CATEGORY, category);
+        selected.put(CatalogFacetIndex.BRAND, brand);
+        selected.put(CatalogFacetIndex.PRICE, price);
+        selected.put(CatalogFacetIndex.AVAILABILITY, availability);
+        selected.values().removeIf(Objects::isNull);
+        return ResponseEntity.ok(catalogFacetIndex.browse(selected, Math.max(page, 0), Math.clamp(size, 1, MAX_BROWSE_SIZE)));
+    }
+
+    @GetMapping("/stock")
+    public ResponseEntity<List<ProductStockResponse>> getStock(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_BROWSE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BROWSE_SIZE + " products per request");
+        }
+        // changes with every sale, unlike the catalog responses it complements
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(inventoryReservationService.stock(ids));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggestProducts(@RequestParam String q,
+                                                                    @RequestParam(defaultValue = "8") int limit) {
+        // keystroke traffic: let browsers and proxies absorb repeats of the same prefix for a short while
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(suggestMaxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .body(productSuggestIndex.suggest(q, limit));
+    }
+
+    @GetMapping("/best-sellers")
+    public ResponseEntity<List<ProductSummaryResponse>> getBestSellers(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productPopularityService.bestSellers(limit));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<ProductSummaryResponse>> getTrending(@RequestParam(required = false) String category,
+                                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productPopularityService.trending(category, limit));
+    }
 
-        return ResponseEntity.ok(productPage);
+    @GetMapping("/trending-categories")
+    public ResponseEntity<List<CategoryTrendResponse>> getTrendingCategories(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productPopularityService.trendingCategories(limit));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_USER')")
-    public ResponseEntity<Product> getProductById(@PathVariable int id) {
-        Product product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+    public ResponseEntity<byte[]> getProductById(@PathVariable int id,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                 WebRequest webRequest) {
+        return precompressed(webRequest, acceptEncoding, CacheControl.noCache().cachePrivate(), "products:" + id,
+                () -> json(productService.getProductById(id)));
+    }
+
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<ProductSummaryResponse>> getRelatedProducts(@PathVariable long id,
+                                                                           @RequestParam(defaultValue = "6") int limit) {
+        return ResponseEntity.ok(productRecommendationService.related(id, limit));
+    }
+
+    @PostMapping("/related/rebuild")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Void> rebuildRelatedProducts() {
+        productRecommendationService.startRebuild();
+        return ResponseEntity.accepted().build();
     }
 
     @GetMapping("/{id}/image")
-    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_USER')")
-    public ResponseEntity<byte[]> getProductImage(@PathVariable int id) {
-        Product product = productService.getProductById(id);
-        return ResponseEntity.ok(product.getImageData());
+    public ResponseEntity<byte[]> getProductImage(@PathVariable long id,
+                                                  @RequestParam(required = false) Integer w,
+                                                  @RequestParam(required = false) String v,
+                                                  WebRequest webRequest) {
+        String version = productImageService.version(id);
+        Integer width = productImageService.variantWidth(w);
+        // URLs carrying the current content hash never change, anything else has to revalidate
+        CacheControl cacheControl = version.equals(v)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.maxAge(imageMaxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate();
+        if (webRequest.checkNotModified(ProductImageService.etag(version, width))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+
+        ProductImageService.ProductImage image = productImageService.load(id, width, version);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .cacheControl(cacheControl)
+                .body(image.data());
     }
 
     @PostMapping("/generate-description")
@@ -82,11 +216,58 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/{id}/stock-shards")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<StockShardResponse> shardStock(@PathVariable long id, @RequestParam(required = false) Integer shards) {
+        return ResponseEntity.ok(shardedStockService.enable(id, shards));
+    }
+
+    @DeleteMapping("/{id}/stock-shards")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<StockShardResponse> mergeStockShards(@PathVariable long id) {
+        return ResponseEntity.ok(shardedStockService.disable(id));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String keyword) {
-        List<Product> products = productService.searchProducts(keyword);
-        log.info("searching with {}", keyword);
-        return new ResponseEntity<>(products, HttpStatus.OK);
+    public ResponseEntity<byte[]> searchProducts(@RequestParam String keyword,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                 WebRequest webRequest) {
+        return precompressed(webRequest, acceptEncoding, CacheControl.noCache().cachePublic(), "products:search:" + keyword, () -> {
+            log.info("searching with {}", keyword);
+            return json(productService.searchProducts(keyword));
+        });
+    }
+
+    /**
+     * Answers 304 from the catalog version alone, before the body is loaded or serialized; otherwise sends
+     * the body for the current catalog version from the response cache in the best encoding the client
+     * accepts. The validators are written by checkNotModified, so they are not repeated on the entity, and
+     * the explicit Content-Encoding keeps server.compression from compressing the body again. The version
+     * is read once, so the 304 check and the cache key always agree even if the catalog changes meanwhile.
+     */
+    private ResponseEntity<byte[]> precompressed(WebRequest webRequest, String acceptEncoding, CacheControl cacheControl,
+                                                 String key, Supplier<byte[]> body) {
+        CatalogVersion.State catalog = catalogVersion.current();
+        if (webRequest.checkNotModified(catalog.etag(), catalog.lastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        PrecompressedResponseCache.Variant variant = responseCache.get(key, catalog.version(), acceptEncoding, body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (variant.contentEncoding() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, variant.contentEncoding());
+        }
+        return response.body(variant.body());
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.CodeWithRishu.SnapBuy.controller;
+
+import com.CodeWithRishu.SnapBuy.dto.RollupDimension;
+import com.CodeWithRishu.SnapBuy.dto.RollupGranularity;
+import com.CodeWithRishu.SnapBuy.dto.response.RollupBackfillResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.SalesRollupResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.SalesTotalResponse;
+import com.CodeWithRishu.SnapBuy.service.SalesAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/analytics/sales")
+@PreAuthorize("hasAuthority('ROLE_ADMIN')")
+public class SalesAnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    @GetMapping
+    public ResponseEntity<List<SalesRollupResponse>> series(@RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+                                                            @RequestParam(defaultValue = "TOTAL") RollupDimension dimension,
+                                                            @RequestParam(required = false) String key,
+                                                            @RequestParam Instant from,
+                                                            @RequestParam Instant to) {
+        return ResponseEntity.ok(salesAnalyticsService.series(granularity, dimension, key, from, to));
+    }
+
+    @GetMapping("/top")
+    public ResponseEntity<List<SalesTotalResponse>> top(@RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+                                                        @RequestParam(defaultValue = "PRODUCT") RollupDimension dimension,
+                                                        @RequestParam Instant from,
+                                                        @RequestParam Instant to,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(salesAnalyticsService.top(granularity, dimension, from, to, limit));
+    }
+
+    @PostMapping("/backfill")
+    public ResponseEntity<RollupBackfillResponse> backfill() {
+        return new ResponseEntity<>(salesAnalyticsService.triggerBackfill(), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/backfill/status")
+    public ResponseEntity<RollupBackfillResponse> backfillStatus() {
+        return ResponseEntity.ok(salesAnalyticsService.backfillStatus());
+    }
+}
@@ -0,0 +1,33 @@
+package com.CodeWithRishu.SnapBuy.controller;
+
+import com.CodeWithRishu.SnapBuy.dto.response.ReconciliationResponse;
+import com.CodeWithRishu.SnapBuy.service.VectorReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/vector-index")
+public class VectorIndexController {
+
+    private final VectorReconciliationService reconciliationService;
+
+    @PostMapping("/reconcile")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ReconciliationResponse> reconcile() {
+        return new ResponseEntity<>(reconciliationService.trigger(), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/reconcile/status")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ReconciliationResponse> status() {
+        return ResponseEntity.ok(reconciliationService.status());
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+public enum BulkFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    BulkFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Picks the format from an explicit request parameter, falling back to the upload's file name.
+     */
+    public static BulkFormat resolve(String requested, String fileName) {
+        if (requested != null && !requested.isBlank()) {
+            return valueOf(requested.trim().toUpperCase());
+        }
+        String name = fileName != null ? fileName.toLowerCase() : "";
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? NDJSON : CSV;
+    }
+}
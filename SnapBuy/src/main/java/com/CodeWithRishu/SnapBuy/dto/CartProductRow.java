@@ -0,0 +1,12 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+import java.math.BigDecimal;
+
+public record CartProductRow(
+        long id,
+        String name,
+        BigDecimal price,
+        int stockQuantity,
+        boolean productAvailable
+) {
+}
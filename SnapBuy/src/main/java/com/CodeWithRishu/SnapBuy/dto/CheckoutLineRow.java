@@ -0,0 +1,14 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record CheckoutLineRow(
+        String email,
+        OrderStatus status,
+        Instant createdAt,
+        String productName,
+        int quantity,
+        BigDecimal totalPrice
+) {
+}
@@ -0,0 +1,4 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+public record HeldQuantityRow(long productId, long quantity) {
+}
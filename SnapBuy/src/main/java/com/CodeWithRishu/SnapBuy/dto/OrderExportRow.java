@@ -0,0 +1,25 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One order line as written by the admin order export; order fields repeat on every line of the order.
+ */
+public record OrderExportRow(
+        String orderId,
+        LocalDate orderDate,
+        Instant placedAt,
+        OrderStatus status,
+        String customerName,
+        String email,
+        Long productId,
+        String productName,
+        int quantity,
+        BigDecimal lineTotal
+) {
+    public static final String[] COLUMNS = {
+            "orderId", "orderDate", "placedAt", "status", "customerName", "email", "productId", "productName", "quantity", "lineTotal"
+    };
+}
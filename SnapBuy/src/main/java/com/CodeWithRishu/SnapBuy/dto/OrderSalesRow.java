@@ -0,0 +1,16 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record OrderSalesRow(
+        long id,
+        String orderId,
+        Instant createdAt,
+        OrderStatus status,
+        Long productId,
+        String category,
+        int quantity,
+        BigDecimal totalPrice
+) {
+}
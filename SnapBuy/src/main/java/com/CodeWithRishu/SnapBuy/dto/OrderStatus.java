@@ -1,5 +1,11 @@
 package com.CodeWithRishu.SnapBuy.dto;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     PLACED,
     PENDING,
@@ -8,5 +14,42 @@ public enum OrderStatus {
     DELIVERED,
     CANCELLED,
     RETURN_REQUESTED,
-    RETURNED
-}
\ No newline at end of file
+    RETURNED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        allow(PLACED, PENDING, CONFIRMED, CANCELLED);
+        allow(PENDING, CONFIRMED, CANCELLED);
+        allow(CONFIRMED, SHIPPED, CANCELLED);
+        allow(SHIPPED, DELIVERED);
+        allow(DELIVERED, RETURN_REQUESTED);
+        allow(RETURN_REQUESTED, RETURNED, DELIVERED);
+        allow(CANCELLED);
+        allow(RETURNED);
+
+        for (OrderStatus target : values()) {
+            SOURCES.put(target, EnumSet.noneOf(OrderStatus.class));
+        }
+        TRANSITIONS.forEach((source, targets) -> targets.forEach(target -> SOURCES.get(target).add(source)));
+        SOURCES.replaceAll((target, sources) -> Collections.unmodifiableSet(sources));
+    }
+
+    private static void allow(OrderStatus source, OrderStatus... targets) {
+        Set<OrderStatus> allowed = EnumSet.noneOf(OrderStatus.class);
+        allowed.addAll(Set.of(targets));
+        TRANSITIONS.put(source, Collections.unmodifiableSet(allowed));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * Statuses an order may be in for a move to {@code target} to be valid.
+     */
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        return SOURCES.get(target);
+    }
+}
@@ -0,0 +1,4 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+public record OrderStatusRow(String orderId, OrderStatus status) {
+}
@@ -0,0 +1,38 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * One catalog row as read by the bulk import and written by the export. Nullable fields on an
+ * update keep the product's current value.
+ */
+public record ProductBulkRow(
+        Long id,
+        String name,
+        String description,
+        String brand,
+        String category,
+        BigDecimal price,
+        LocalDate releaseDate,
+        Boolean productAvailable,
+        Integer stockQuantity
+) {
+    public static final String[] COLUMNS = {
+            "id", "name", "description", "brand", "category", "price", "releaseDate", "productAvailable", "stockQuantity"
+    };
+
+    // JPQL constructor expression for the export query
+    public ProductBulkRow(long id, String name, String description, String brand, String category, BigDecimal price,
+                          Date releaseDate, boolean productAvailable, int stockQuantity) {
+        this(id, name, description, brand, category, price,
+                releaseDate != null ? releaseDate.toInstant().atZone(ZoneOffset.UTC).toLocalDate() : null,
+                productAvailable, stockQuantity);
+    }
+
+    public ProductBulkRow withStockQuantity(int stock) {
+        return new ProductBulkRow(id, name, description, brand, category, price, releaseDate, productAvailable, stock);
+    }
+}
@@ -0,0 +1,31 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+import com.CodeWithRishu.SnapBuy.entity.Product;
+
+import java.math.BigDecimal;
+
+public record ProductIndexRow(
+        long id,
+        String name,
+        String description,
+        String brand,
+        String category,
+        BigDecimal price,
+        int stockQuantity,
+        boolean productAvailable,
+        String embeddingHash
+) {
+    public Product toProduct() {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .brand(brand)
+                .category(category)
+                .price(price)
+                .stockQuantity(stockQuantity)
+                .productAvailable(productAvailable)
+                .embeddingHash(embeddingHash)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+import com.CodeWithRishu.SnapBuy.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Every serialized product field except the image bytes, which the catalog snapshot never needs.
+ */
+public record ProductSnapshotRow(
+        long id,
+        String name,
+        String description,
+        String brand,
+        BigDecimal price,
+        String category,
+        Date releaseDate,
+        boolean productAvailable,
+        String imageName,
+        String imageType,
+        String imageHash
+) {
+    public Product toProduct() {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .brand(brand)
+                .price(price)
+                .category(category)
+                .releaseDate(releaseDate)
+                .productAvailable(productAvailable)
+                .imageName(imageName)
+                .imageType(imageType)
+                .imageHash(imageHash)
+                .build();
+    }
+}
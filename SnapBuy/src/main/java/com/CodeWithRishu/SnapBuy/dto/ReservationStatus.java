@@ -0,0 +1,9 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+public enum ReservationStatus {
+    HELD,
+    CONVERTED,
+    RELEASED,
+    // the stock could no longer cover the hold when it was sold: nothing was taken and the order needs a refund or restock
+    SHORTFALL
+}
@@ -0,0 +1,8 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+public enum RollupDimension {
+    TOTAL,
+    PRODUCT,
+    CATEGORY,
+    STATUS
+}
@@ -0,0 +1,4 @@
+package com.CodeWithRishu.SnapBuy.dto;
+
+public record ShardTotalRow(long productId, long shards, long quantity) {
+}
@@ -0,0 +1,9 @@
+package com.CodeWithRishu.SnapBuy.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record CartCheckoutRequest(
+        @NotBlank(message = "Customer name is required")
+        String customerName,
+        String paymentMethod) {
+}
@@ -0,0 +1,13 @@
+package com.CodeWithRishu.SnapBuy.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record CartItemRequest(
+        @NotNull(message = "Product id is required")
+        Long productId,
+        @Min(value = 1, message = "Quantity must be at least 1")
+        @Max(value = 99, message = "Quantity must be at most 99")
+        int quantity) {
+}
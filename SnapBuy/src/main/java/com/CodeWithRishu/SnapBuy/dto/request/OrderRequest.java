@@ -11,6 +11,7 @@ public record OrderRequest(
         @Email(message = "Email should be valid")
         @NotBlank(message = "Email is required")
         String email,
-        List<OrderItemRequest> items
+        List<OrderItemRequest> items,
+        String paymentMethod
 ) {
 }
\ No newline at end of file
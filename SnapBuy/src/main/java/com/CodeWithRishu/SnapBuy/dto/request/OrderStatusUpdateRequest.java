@@ -0,0 +1,16 @@
+package com.CodeWithRishu.SnapBuy.dto.request;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record OrderStatusUpdateRequest(
+        @NotEmpty(message = "At least one order id is required")
+        @Size(max = 50000, message = "At most 50000 orders can be updated at once")
+        List<String> orderIds,
+        @NotNull(message = "Target status is required")
+        OrderStatus status) {
+}
@@ -0,0 +1,14 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+import java.math.BigDecimal;
+
+public record CartLineResponse(
+        long productId,
+        String productName,
+        BigDecimal unitPrice,
+        int quantity,
+        BigDecimal lineTotal,
+        int availableStock,
+        String problem
+) {
+}
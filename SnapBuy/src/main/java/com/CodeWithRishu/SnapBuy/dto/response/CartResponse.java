@@ -0,0 +1,12 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record CartResponse(
+        List<CartLineResponse> items,
+        int totalItems,
+        BigDecimal totalPrice,
+        boolean valid
+) {
+}
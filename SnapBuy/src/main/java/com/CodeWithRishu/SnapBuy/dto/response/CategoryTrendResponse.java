@@ -0,0 +1,4 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+public record CategoryTrendResponse(String category, double score) {
+}
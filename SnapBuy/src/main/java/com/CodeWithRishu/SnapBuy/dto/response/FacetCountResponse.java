@@ -0,0 +1,4 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+public record FacetCountResponse(String value, int count, boolean selected) {
+}
@@ -0,0 +1,15 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+
+import java.util.List;
+
+public record OrderStatusUpdateResponse(
+        OrderStatus status,
+        int requested,
+        int updated,
+        List<Failure> failures
+) {
+    public record Failure(String orderId, OrderStatus currentStatus, String reason) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+public record ProductBrowseResponse(PageResponse<ProductSummaryResponse> results,
+                                    Map<String, List<FacetCountResponse>> facets) {
+}
@@ -0,0 +1,19 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ProductImportResponse(
+        String status,
+        String format,
+        Instant startedAt,
+        Instant finishedAt,
+        long rowsRead,
+        long created,
+        long updated,
+        long rejected,
+        long indexed,
+        List<String> errors,
+        String error
+) {
+}
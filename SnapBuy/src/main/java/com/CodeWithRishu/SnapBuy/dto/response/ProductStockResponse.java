@@ -0,0 +1,4 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+public record ProductStockResponse(long productId, int available, boolean inStock) {
+}
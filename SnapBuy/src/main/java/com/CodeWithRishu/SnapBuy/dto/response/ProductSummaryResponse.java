@@ -0,0 +1,18 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+import java.math.BigDecimal;
+
+public record ProductSummaryResponse(
+        long id,
+        String name,
+        String brand,
+        String category,
+        BigDecimal price,
+        boolean productAvailable,
+        int stockQuantity,
+        String imageHash
+) {
+    public ProductSummaryResponse withStockQuantity(int stockQuantity) {
+        return new ProductSummaryResponse(id, name, brand, category, price, productAvailable, stockQuantity, imageHash);
+    }
+}
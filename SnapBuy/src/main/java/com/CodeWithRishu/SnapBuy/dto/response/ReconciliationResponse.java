@@ -0,0 +1,17 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+import java.time.Instant;
+
+public record ReconciliationResponse(
+        String status,
+        Instant startedAt,
+        Instant finishedAt,
+        long scanned,
+        long reembedded,
+        long metadataUpdated,
+        long duplicatesRemoved,
+        long orphansRemoved,
+        double productsPerSecond,
+        String error
+) {
+}
@@ -0,0 +1,12 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+import java.time.Instant;
+
+public record RollupBackfillResponse(
+        String status,
+        Instant startedAt,
+        Instant finishedAt,
+        long ordersProcessed,
+        String error
+) {
+}
@@ -0,0 +1,16 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+import com.CodeWithRishu.SnapBuy.dto.RollupDimension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record SalesRollupResponse(
+        Instant bucketStart,
+        RollupDimension dimension,
+        String key,
+        long orders,
+        long units,
+        BigDecimal revenue
+) {
+}
@@ -0,0 +1,6 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+import java.math.BigDecimal;
+
+public record SalesTotalResponse(String key, long orders, long units, BigDecimal revenue) {
+}
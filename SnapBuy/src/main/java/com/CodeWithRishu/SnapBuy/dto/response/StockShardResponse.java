@@ -0,0 +1,4 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+public record StockShardResponse(long productId, int shards, int totalStock) {
+}
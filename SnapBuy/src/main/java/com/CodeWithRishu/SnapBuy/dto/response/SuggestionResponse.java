@@ -0,0 +1,7 @@
+package com.CodeWithRishu.SnapBuy.dto.response;
+
+/**
+ * One typeahead completion: a product name (with its id), a brand or a category.
+ */
+public record SuggestionResponse(String type, String text, Long productId, long weight) {
+}
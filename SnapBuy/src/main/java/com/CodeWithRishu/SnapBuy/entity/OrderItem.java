@@ -17,7 +17,8 @@ import java.math.BigDecimal;
 public class OrderItem extends AuditEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -29,6 +30,9 @@ public class OrderItem extends AuditEntity {
     @Column(nullable = false)
     private BigDecimal totalPrice;
 
+    // the product's category when the order was placed, so sales reporting never follows later recategorisation
+    private String category;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
@@ -14,7 +14,8 @@ import java.time.Instant;
 @AllArgsConstructor
 public class OtpVerification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "otp_verifications_seq")
+    @SequenceGenerator(name = "otp_verifications_seq", sequenceName = "otp_verifications_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
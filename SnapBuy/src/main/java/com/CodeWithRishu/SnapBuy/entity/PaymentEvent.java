@@ -0,0 +1,39 @@
+package com.CodeWithRishu.SnapBuy.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "payment_events", indexes = @Index(name = "idx_payment_events_processed", columnList = "processedAt, id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaymentEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String eventId;
+
+    @Column(nullable = false, length = 100)
+    private String type;
+
+    private String orderId;
+
+    private String sessionId;
+
+    @Column(nullable = false)
+    private Instant receivedAt;
+
+    private Instant processedAt;
+
+    // set when the event was processed but its transition was rejected; such events outlive the retention purge
+    @Column(length = 255)
+    private String failureReason;
+}
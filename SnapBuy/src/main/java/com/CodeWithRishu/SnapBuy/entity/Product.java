@@ -1,6 +1,8 @@
 package com.CodeWithRishu.SnapBuy.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.DynamicInsert;
@@ -20,7 +22,8 @@ import java.util.Date;
 public class Product extends AuditEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private long id;
 
     private String name;
@@ -40,6 +43,9 @@ public class Product extends AuditEntity {
 
     private boolean productAvailable;
 
+    // accepted on writes but never serialized, so catalog responses stay valid across sales; live stock
+    // comes from /api/products/stock
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private int stockQuantity;
 
     @Column(name = "image_name")
@@ -48,8 +54,17 @@ public class Product extends AuditEntity {
     @Column(name = "image_type")
     private String imageType;
 
+    // accepted on writes but never serialized; clients load images from /api/products/{id}/image
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Lob
     @Column(length = 1000000)
     private byte[] imageData;
 
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    @JsonIgnore
+    @Column(name = "embedding_hash", length = 64)
+    private String embeddingHash;
+
 }
@@ -0,0 +1,34 @@
+package com.CodeWithRishu.SnapBuy.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Checkpoint of a product's decayed sales counters; the scores are as of {@code scoredAt}.
+ */
+@Entity
+@Table(name = "product_popularity", indexes = @Index(name = "idx_product_popularity_category", columnList = "category"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductPopularity {
+
+    @Id
+    @Column(name = "product_id")
+    private long productId;
+
+    private String category;
+
+    @Column(name = "best_seller_score", nullable = false)
+    private double bestSellerScore;
+
+    @Column(name = "trending_score", nullable = false)
+    private double trendingScore;
+
+    @Column(name = "scored_at", nullable = false)
+    private Instant scoredAt;
+}
@@ -0,0 +1,34 @@
+package com.CodeWithRishu.SnapBuy.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One precomputed "customers also bought" neighbour of a product, {@code rank} 0 being the strongest.
+ */
+@Entity
+@Table(name = "product_recommendations", indexes = @Index(name = "idx_recommendation_product", columnList = "product_id, rank_position"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductRecommendation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_recommendation_seq")
+    @SequenceGenerator(name = "product_recommendation_seq", sequenceName = "product_recommendation_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private long productId;
+
+    @Column(name = "related_product_id", nullable = false)
+    private long relatedProductId;
+
+    @Column(name = "rank_position", nullable = false)
+    private int rank;
+
+    @Column(nullable = false)
+    private double score;
+}
@@ -0,0 +1,28 @@
+package com.CodeWithRishu.SnapBuy.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "product_stock_shards", uniqueConstraints =
+        @UniqueConstraint(name = "uk_stock_shard_product_index", columnNames = {"product_id", "shard_index"}))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductStockShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private long productId;
+
+    @Column(name = "shard_index", nullable = false)
+    private int shardIndex;
+
+    @Column(nullable = false)
+    private int quantity;
+}
@@ -0,0 +1,32 @@
+package com.CodeWithRishu.SnapBuy.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Orders, units and revenue of one dimension value in one hour or day, bucketed by when the orders
+ * were placed. Rows are only ever changed by adding deltas, see {@code SalesRollupRepository#add}.
+ */
+@Entity
+@Table(name = "sales_rollups", indexes = @Index(name = "idx_sales_rollup_range", columnList = "granularity, dimension, bucket_start"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SalesRollup {
+
+    @EmbeddedId
+    private SalesRollupId id;
+
+    @Column(nullable = false)
+    private long orders;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+}
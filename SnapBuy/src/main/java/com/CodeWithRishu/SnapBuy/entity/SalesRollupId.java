@@ -0,0 +1,32 @@
+package com.CodeWithRishu.SnapBuy.entity;
+
+import com.CodeWithRishu.SnapBuy.dto.RollupDimension;
+import com.CodeWithRishu.SnapBuy.dto.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Embeddable
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesRollupId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RollupDimension dimension;
+
+    @Column(name = "dimension_key", nullable = false, length = 191)
+    private String dimensionKey;
+}
@@ -0,0 +1,10 @@
+package com.CodeWithRishu.SnapBuy.event;
+
+import java.time.Instant;
+import java.util.List;
+
+public record OrderPlacedEvent(String orderId, List<Line> lines, Instant placedAt) {
+
+    public record Line(long productId, String category, int quantity) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.CodeWithRishu.SnapBuy.event;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+
+import java.time.Instant;
+
+public record OrderStatusChangedEvent(String orderId, OrderStatus previousStatus, OrderStatus status, Instant changedAt) {
+}
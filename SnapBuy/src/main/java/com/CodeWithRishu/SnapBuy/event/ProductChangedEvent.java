@@ -0,0 +1,14 @@
+package com.CodeWithRishu.SnapBuy.event;
+
+import com.CodeWithRishu.SnapBuy.entity.Product;
+
+public record ProductChangedEvent(long productId, Product product, boolean deleted) {
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product.getId(), product, false);
+    }
+
+    public static ProductChangedEvent deleted(long productId) {
+        return new ProductChangedEvent(productId, null, true);
+    }
+}
@@ -0,0 +1,21 @@
+package com.CodeWithRishu.SnapBuy.repository;
+
+import com.CodeWithRishu.SnapBuy.entity.CartItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+
+    List<CartItem> findByUserEmailOrderById(String userEmail);
+
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.userEmail IN :userEmails")
+    int deleteByUserEmails(@Param("userEmails") Collection<String> userEmails);
+}
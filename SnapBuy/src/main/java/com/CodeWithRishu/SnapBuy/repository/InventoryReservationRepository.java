@@ -0,0 +1,38 @@
+package com.CodeWithRishu.SnapBuy.repository;
+
+import com.CodeWithRishu.SnapBuy.dto.HeldQuantityRow;
+import com.CodeWithRishu.SnapBuy.dto.ReservationStatus;
+import com.CodeWithRishu.SnapBuy.entity.InventoryReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.HeldQuantityRow(r.productId, SUM(r.quantity)) " +
+            "FROM InventoryReservation r WHERE r.status = com.CodeWithRishu.SnapBuy.dto.ReservationStatus.HELD GROUP BY r.productId")
+    List<HeldQuantityRow> sumHeldByProduct();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM InventoryReservation r WHERE r.orderId IN :orderIds " +
+            "AND r.status = com.CodeWithRishu.SnapBuy.dto.ReservationStatus.HELD ORDER BY r.id")
+    List<InventoryReservation> lockHeldForOrders(@Param("orderIds") Collection<String> orderIds);
+
+    @Query("SELECT DISTINCT r.orderId FROM InventoryReservation r " +
+            "WHERE r.status = com.CodeWithRishu.SnapBuy.dto.ReservationStatus.HELD AND r.expiresAt < :now")
+    List<String> findExpiredOrderIds(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE InventoryReservation r SET r.status = :status WHERE r.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") ReservationStatus status);
+}
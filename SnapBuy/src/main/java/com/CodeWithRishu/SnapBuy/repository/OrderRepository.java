@@ -1,14 +1,70 @@
 package com.CodeWithRishu.SnapBuy.repository;
 
+import com.CodeWithRishu.SnapBuy.dto.CheckoutLineRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderLineRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderSalesRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatusRow;
+import com.CodeWithRishu.SnapBuy.dto.ProductOrderCountRow;
 import com.CodeWithRishu.SnapBuy.entity.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     @EntityGraph(attributePaths = {"items"})
     List<Order> findAllByUserId(int userId);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.CheckoutLineRow(o.email, o.status, o.createdAt, i.productName, i.quantity, i.totalPrice) " +
+            "FROM OrderItem i JOIN i.order o WHERE o.orderId = :orderId ORDER BY i.id")
+    List<CheckoutLineRow> findCheckoutLines(@Param("orderId") String orderId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.paymentSessionId = :sessionId WHERE o.orderId = :orderId")
+    int updatePaymentSessionId(@Param("orderId") String orderId, @Param("sessionId") String sessionId);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status WHERE o.orderId IN :orderIds AND o.status IN :fromStatuses")
+    int updateStatusForOrders(@Param("orderIds") Collection<String> orderIds,
+                              @Param("fromStatuses") Collection<OrderStatus> fromStatuses,
+                              @Param("status") OrderStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.OrderStatusRow(o.orderId, o.status) FROM Order o " +
+            "WHERE o.orderId IN :orderIds ORDER BY o.orderId")
+    List<OrderStatusRow> lockStatuses(@Param("orderIds") Collection<String> orderIds);
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.ProductOrderCountRow(i.product.id, COUNT(i)) FROM OrderItem i " +
+            "WHERE i.product IS NOT NULL AND i.order.status <> :excluded GROUP BY i.product.id")
+    List<ProductOrderCountRow> countOrdersByProduct(@Param("excluded") OrderStatus excluded);
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.OrderLineRow(i.order.id, i.product.id) FROM OrderItem i " +
+            "WHERE i.order.id > :afterOrderId AND i.product IS NOT NULL AND i.order.status <> :excluded ORDER BY i.order.id")
+    List<OrderLineRow> findOrderLinesAfter(@Param("afterOrderId") long afterOrderId,
+                                           @Param("excluded") OrderStatus excluded,
+                                           Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // product id and category as stored on the line, so adding and later subtracting an order hit the same rollup rows
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.OrderSalesRow(o.id, o.orderId, o.createdAt, o.status, i.product.id, i.category, i.quantity, i.totalPrice) " +
+            "FROM OrderItem i JOIN i.order o WHERE o.id IN :ids ORDER BY o.id")
+    List<OrderSalesRow> findSalesLines(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.OrderSalesRow(o.id, o.orderId, o.createdAt, o.status, i.product.id, i.category, i.quantity, i.totalPrice) " +
+            "FROM OrderItem i JOIN i.order o WHERE o.orderId IN :orderIds ORDER BY o.id")
+    List<OrderSalesRow> findSalesLinesByOrderIds(@Param("orderIds") Collection<String> orderIds);
+}
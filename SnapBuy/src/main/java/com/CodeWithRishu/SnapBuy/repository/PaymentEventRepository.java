@@ -0,0 +1,32 @@
+package com.CodeWithRishu.SnapBuy.repository;
+
+import com.CodeWithRishu.SnapBuy.entity.PaymentEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentEventRepository extends JpaRepository<PaymentEvent, Long> {
+
+    @Query("SELECT e FROM PaymentEvent e WHERE e.processedAt IS NULL ORDER BY e.id")
+    List<PaymentEvent> findUnprocessed(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE PaymentEvent e SET e.processedAt = :processedAt WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("processedAt") Instant processedAt);
+
+    @Modifying
+    @Query("UPDATE PaymentEvent e SET e.processedAt = :processedAt, e.failureReason = :reason WHERE e.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("reason") String reason, @Param("processedAt") Instant processedAt);
+
+    @Modifying
+    @Query("DELETE FROM PaymentEvent e WHERE e.processedAt < :before AND e.failureReason IS NULL")
+    int deleteProcessedBefore(@Param("before") Instant before);
+}
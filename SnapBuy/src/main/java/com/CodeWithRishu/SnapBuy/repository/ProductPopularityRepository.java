@@ -0,0 +1,36 @@
+package com.CodeWithRishu.SnapBuy.repository;
+
+import com.CodeWithRishu.SnapBuy.entity.ProductPopularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface ProductPopularityRepository extends JpaRepository<ProductPopularity, Long> {
+
+    /**
+     * Adds decayed increments to the stored scores, decaying whichever side is older to the newer
+     * timestamp first, so instances checkpointing the same product add up instead of overwriting each other.
+     * {@code scored_at} is assigned last since MySQL applies the assignments in order.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_popularity (product_id, category, best_seller_score, trending_score, scored_at) " +
+            "VALUES (:productId, :category, :bestSellerDelta, :trendingDelta, :scoredAt) " +
+            "ON DUPLICATE KEY UPDATE category = VALUES(category), " +
+            "best_seller_score = best_seller_score * POW(0.5, GREATEST(0, TIMESTAMPDIFF(MICROSECOND, scored_at, VALUES(scored_at))) / 1000 / :bestSellerHalfLifeMillis) " +
+            "+ VALUES(best_seller_score) * POW(0.5, GREATEST(0, TIMESTAMPDIFF(MICROSECOND, VALUES(scored_at), scored_at)) / 1000 / :bestSellerHalfLifeMillis), " +
+            "trending_score = trending_score * POW(0.5, GREATEST(0, TIMESTAMPDIFF(MICROSECOND, scored_at, VALUES(scored_at))) / 1000 / :trendingHalfLifeMillis) " +
+            "+ VALUES(trending_score) * POW(0.5, GREATEST(0, TIMESTAMPDIFF(MICROSECOND, VALUES(scored_at), scored_at)) / 1000 / :trendingHalfLifeMillis), " +
+            "scored_at = GREATEST(scored_at, VALUES(scored_at))", nativeQuery = true)
+    void add(@Param("productId") long productId,
+             @Param("category") String category,
+             @Param("bestSellerDelta") double bestSellerDelta,
+             @Param("trendingDelta") double trendingDelta,
+             @Param("scoredAt") Instant scoredAt,
+             @Param("bestSellerHalfLifeMillis") double bestSellerHalfLifeMillis,
+             @Param("trendingHalfLifeMillis") double trendingHalfLifeMillis);
+}
@@ -0,0 +1,21 @@
+package com.CodeWithRishu.SnapBuy.repository;
+
+import com.CodeWithRishu.SnapBuy.entity.ProductRecommendation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductRecommendationRepository extends JpaRepository<ProductRecommendation, Long> {
+
+    @Query("SELECT r FROM ProductRecommendation r ORDER BY r.productId, r.rank")
+    List<ProductRecommendation> findAllRanked();
+
+    @Modifying
+    @Query("DELETE FROM ProductRecommendation r WHERE r.productId = :productId OR r.relatedProductId = :productId")
+    int deleteByProduct(@Param("productId") long productId);
+}
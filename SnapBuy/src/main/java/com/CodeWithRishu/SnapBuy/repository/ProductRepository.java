@@ -1,12 +1,24 @@
 package com.CodeWithRishu.SnapBuy.repository;
 
+import com.CodeWithRishu.SnapBuy.dto.CartProductRow;
+import com.CodeWithRishu.SnapBuy.dto.ProductBulkRow;
+import com.CodeWithRishu.SnapBuy.dto.ProductIndexRow;
+import com.CodeWithRishu.SnapBuy.dto.ProductSnapshotRow;
 import com.CodeWithRishu.SnapBuy.entity.Product;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -17,4 +29,56 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             "LOWER(p.category) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Product> searchProducts(@Param("keyword") String keyword);
 
-}
\ No newline at end of file
+    @Query("SELECT MAX(p.updatedAt) FROM Product p")
+    Optional<Instant> findLatestUpdate();
+
+    @Query("SELECT p.embeddingHash FROM Product p WHERE p.id = :id")
+    Optional<String> findEmbeddingHashById(@Param("id") long id);
+
+    @Query("SELECT p.imageHash FROM Product p WHERE p.id = :id")
+    Optional<String> findImageHashById(@Param("id") long id);
+
+    // MySQL's SHA2 yields the same lowercase hex as ProductImageService.imageHash
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE product SET image_hash = SHA2(image_data, 256) " +
+            "WHERE image_hash IS NULL AND image_data IS NOT NULL AND LENGTH(image_data) > 0", nativeQuery = true)
+    int backfillImageHashes();
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.ProductIndexRow(" +
+            "p.id, p.name, p.description, p.brand, p.category, p.price, p.stockQuantity, p.productAvailable, p.embeddingHash) " +
+            "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductIndexRow> findIndexRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.ProductSnapshotRow(" +
+            "p.id, p.name, p.description, p.brand, p.price, p.category, p.releaseDate, p.productAvailable, " +
+            "p.imageName, p.imageType, p.imageHash) FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSnapshotRow> findSnapshotRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.ProductBulkRow(" +
+            "p.id, p.name, p.description, p.brand, p.category, p.price, p.releaseDate, p.productAvailable, p.stockQuantity) " +
+            "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductBulkRow> findBulkRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.embeddingHash = :embeddingHash WHERE p.id = :id")
+    void updateEmbeddingHash(@Param("id") long id, @Param("embeddingHash") String embeddingHash);
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.CartProductRow(p.id, p.name, p.price, p.stockQuantity, p.productAvailable) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<CartProductRow> findCartRows(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") long id, @Param("quantity") int quantity);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> lockStockQuantity(@Param("id") long id);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = :quantity WHERE p.id = :id")
+    int updateStockQuantity(@Param("id") long id, @Param("quantity") int quantity);
+
+}
@@ -0,0 +1,40 @@
+package com.CodeWithRishu.SnapBuy.repository;
+
+import com.CodeWithRishu.SnapBuy.dto.ShardTotalRow;
+import com.CodeWithRishu.SnapBuy.entity.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.ShardTotalRow(s.productId, COUNT(s), SUM(s.quantity)) " +
+            "FROM ProductStockShard s GROUP BY s.productId")
+    List<ShardTotalRow> sumByProduct();
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity - :quantity " +
+            "WHERE s.productId = :productId AND s.shardIndex = :shardIndex AND s.quantity >= :quantity")
+    int decrementShard(@Param("productId") long productId, @Param("shardIndex") int shardIndex, @Param("quantity") int quantity);
+
+    /**
+     * Locks the product's shards and returns their quantities by shard index, read from the rows rather
+     * than from entities the persistence context may hold from before a bulk decrement.
+     */
+    @Query(value = "SELECT s.quantity FROM product_stock_shards s WHERE s.product_id = :productId " +
+            "ORDER BY s.shard_index FOR UPDATE", nativeQuery = true)
+    List<Integer> lockQuantities(@Param("productId") long productId);
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = :quantity WHERE s.productId = :productId AND s.shardIndex = :shardIndex")
+    int setShard(@Param("productId") long productId, @Param("shardIndex") int shardIndex, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("DELETE FROM ProductStockShard s WHERE s.productId = :productId")
+    int deleteByProductId(@Param("productId") long productId);
+}
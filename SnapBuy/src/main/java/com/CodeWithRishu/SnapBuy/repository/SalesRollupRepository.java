@@ -0,0 +1,54 @@
+package com.CodeWithRishu.SnapBuy.repository;
+
+import com.CodeWithRishu.SnapBuy.dto.RollupDimension;
+import com.CodeWithRishu.SnapBuy.dto.RollupGranularity;
+import com.CodeWithRishu.SnapBuy.dto.response.SalesTotalResponse;
+import com.CodeWithRishu.SnapBuy.entity.SalesRollup;
+import com.CodeWithRishu.SnapBuy.entity.SalesRollupId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollupId> {
+
+    // rollups only ever move by deltas, so concurrent writers never overwrite each other
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (granularity, bucket_start, dimension, dimension_key, orders, units, revenue) " +
+            "VALUES (:granularity, :bucketStart, :dimension, :dimensionKey, :orders, :units, :revenue) " +
+            "ON DUPLICATE KEY UPDATE orders = orders + VALUES(orders), units = units + VALUES(units), " +
+            "revenue = revenue + VALUES(revenue)", nativeQuery = true)
+    void add(@Param("granularity") String granularity,
+             @Param("bucketStart") Instant bucketStart,
+             @Param("dimension") String dimension,
+             @Param("dimensionKey") String dimensionKey,
+             @Param("orders") long orders,
+             @Param("units") long units,
+             @Param("revenue") BigDecimal revenue);
+
+    @Query("SELECT r FROM SalesRollup r WHERE r.id.granularity = :granularity AND r.id.dimension = :dimension " +
+            "AND (:key IS NULL OR r.id.dimensionKey = :key) AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+            "ORDER BY r.id.bucketStart, r.id.dimensionKey")
+    List<SalesRollup> findSeries(@Param("granularity") RollupGranularity granularity,
+                                 @Param("dimension") RollupDimension dimension,
+                                 @Param("key") String key,
+                                 @Param("from") Instant from,
+                                 @Param("to") Instant to);
+
+    @Query("SELECT new com.CodeWithRishu.SnapBuy.dto.response.SalesTotalResponse(r.id.dimensionKey, SUM(r.orders), SUM(r.units), SUM(r.revenue)) " +
+            "FROM SalesRollup r WHERE r.id.granularity = :granularity AND r.id.dimension = :dimension " +
+            "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+            "GROUP BY r.id.dimensionKey ORDER BY SUM(r.revenue) DESC, r.id.dimensionKey")
+    List<SalesTotalResponse> findTotals(@Param("granularity") RollupGranularity granularity,
+                                        @Param("dimension") RollupDimension dimension,
+                                        @Param("from") Instant from,
+                                        @Param("to") Instant to,
+                                        Pageable pageable);
+}
@@ -0,0 +1,105 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Access-ordered map bounded by the total size of its values rather than their count. Misses are loaded
+ * by one thread per key; concurrent requests for that key wait for its result instead of repeating the work.
+ */
+final class ByteBoundedCache<V> {
+
+    private final long maxBytes;
+    private final ToLongFunction<V> weigher;
+    private final BiPredicate<V, V> supersedes;
+    private final LinkedHashMap<String, V> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private long bytes;
+
+    /**
+     * @param weigher    size of a value in bytes
+     * @param supersedes whether a value may replace the one already cached under its key
+     */
+    ByteBoundedCache(long maxBytes, ToLongFunction<V> weigher, BiPredicate<V, V> supersedes) {
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+        this.supersedes = supersedes;
+    }
+
+    synchronized V get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, V value) {
+        V previous = entries.get(key);
+        if (previous != null && !supersedes.test(value, previous)) {
+            return;
+        }
+        if (previous != null) {
+            entries.remove(key);
+            bytes -= weigher.applyAsLong(previous);
+        }
+        long size = weigher.applyAsLong(value);
+        if (size > maxBytes) {
+            return;
+        }
+        entries.put(key, value);
+        bytes += size;
+        Iterator<V> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= weigher.applyAsLong(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    /**
+     * The cached value of {@code key} if {@code current} accepts it, otherwise the result of {@code loader},
+     * which is cached on the way out.
+     */
+    V getOrLoad(String key, Predicate<V> current, Supplier<V> loader) {
+        V cached = get(key);
+        if (cached != null && current.test(cached)) {
+            return cached;
+        }
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            V loaded;
+            try {
+                loaded = running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            // the running load may be for an older version than this caller needs
+            return current.test(loaded) ? loaded : load(key, loader);
+        }
+        try {
+            V loaded = load(key, loader);
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private V load(String key, Supplier<V> loader) {
+        V loaded = loader.get();
+        put(key, loaded);
+        return loaded;
+    }
+}
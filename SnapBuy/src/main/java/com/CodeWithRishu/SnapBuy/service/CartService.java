@@ -0,0 +1,140 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.CartProductRow;
+import com.CodeWithRishu.SnapBuy.dto.request.CartCheckoutRequest;
+import com.CodeWithRishu.SnapBuy.dto.request.CartItemRequest;
+import com.CodeWithRishu.SnapBuy.dto.request.OrderItemRequest;
+import com.CodeWithRishu.SnapBuy.dto.request.OrderRequest;
+import com.CodeWithRishu.SnapBuy.dto.response.CartLineResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.CartResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.OrderResponse;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CartService {
+
+    private final CartStore cartStore;
+    private final ProductRepository productRepository;
+    private final OrderService orderService;
+    private final InventoryReservationService inventoryReservationService;
+
+    public CartResponse getCart(String userEmail) {
+        return price(cartStore.items(userEmail));
+    }
+
+    public CartResponse addItem(String userEmail, CartItemRequest request) {
+        cartStore.add(userEmail, request.productId(), request.quantity());
+        return getCart(userEmail);
+    }
+
+    public CartResponse updateItem(String userEmail, long productId, int quantity) {
+        cartStore.setQuantity(userEmail, productId, quantity);
+        return getCart(userEmail);
+    }
+
+    public CartResponse removeItem(String userEmail, long productId) {
+        cartStore.setQuantity(userEmail, productId, 0);
+        return getCart(userEmail);
+    }
+
+    public CartResponse replaceCart(String userEmail, List<CartItemRequest> items) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        items.stream()
+                .filter(item -> item.productId() != null)
+                .forEach(item -> quantities.merge(item.productId(), item.quantity(), Integer::sum));
+        quantities.forEach((productId, quantity) -> {
+            if (quantity > CartStore.MAX_QUANTITY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Quantity of product " + productId + " must be at most " + CartStore.MAX_QUANTITY);
+            }
+        });
+        cartStore.replace(userEmail, quantities);
+        return getCart(userEmail);
+    }
+
+    public void clearCart(String userEmail) {
+        cartStore.clear(userEmail);
+    }
+
+    /**
+     * Revalidates every line against current prices and stock in one query before placing the order.
+     */
+    public OrderResponse checkout(String userEmail, CartCheckoutRequest request) {
+        Map<Long, Integer> items = cartStore.items(userEmail);
+        if (items.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cart is empty");
+        }
+
+        CartResponse cart = price(items);
+        if (!cart.valid()) {
+            String problems = cart.items().stream()
+                    .filter(line -> line.problem() != null)
+                    .map(line -> (line.productName() != null ? line.productName() : "Product " + line.productId()) + ": " + line.problem())
+                    .collect(Collectors.joining("; "));
+            throw new ResponseStatusException(HttpStatus.CONFLICT, problems);
+        }
+
+        List<OrderItemRequest> orderItems = cart.items().stream()
+                .map(line -> new OrderItemRequest(line.productId(), line.quantity()))
+                .toList();
+        OrderResponse order = orderService.placeOrder(new OrderRequest(request.customerName(), userEmail, orderItems, request.paymentMethod()));
+        cartStore.clear(userEmail);
+        log.info("Checked out cart for {} as order {}", userEmail, order.orderId());
+        return order;
+    }
+
+    private CartResponse price(Map<Long, Integer> items) {
+        if (items.isEmpty()) {
+            return new CartResponse(List.of(), 0, BigDecimal.ZERO, true);
+        }
+
+        Map<Long, CartProductRow> products = productRepository.findCartRows(items.keySet()).stream()
+                .collect(Collectors.toMap(CartProductRow::id, Function.identity()));
+
+        List<CartLineResponse> lines = new ArrayList<>(items.size());
+        BigDecimal total = BigDecimal.ZERO;
+        int totalItems = 0;
+        boolean valid = true;
+
+        for (Map.Entry<Long, Integer> entry : items.entrySet()) {
+            CartProductRow product = products.get(entry.getKey());
+            int quantity = entry.getValue();
+            if (product == null) {
+                lines.add(new CartLineResponse(entry.getKey(), null, null, quantity, null, 0, "Product no longer exists"));
+                valid = false;
+                continue;
+            }
+
+            int available = Math.max(0, inventoryReservationService.available(product.id(), product.stockQuantity()));
+            String problem = null;
+            if (!product.productAvailable()) {
+                problem = "Product is unavailable";
+            } else if (available < quantity) {
+                problem = "Only " + available + " left in stock";
+            }
+            valid &= problem == null;
+
+            BigDecimal lineTotal = product.price().multiply(BigDecimal.valueOf(quantity));
+            lines.add(new CartLineResponse(product.id(), product.name(), product.price(), quantity, lineTotal, available, problem));
+            total = total.add(lineTotal);
+            totalItems += quantity;
+        }
+
+        return new CartResponse(lines, totalItems, total, valid);
+    }
+}
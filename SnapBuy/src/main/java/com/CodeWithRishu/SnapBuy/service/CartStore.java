@@ -0,0 +1,199 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.entity.CartItem;
+import com.CodeWithRishu.SnapBuy.repository.CartItemRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Hot per-user cart state. Edits only touch memory under a striped lock and mark the cart dirty;
+ * {@link #flush()} writes dirty carts behind to MySQL in one transaction.
+ */
+@Service
+@Slf4j
+public class CartStore {
+
+    private static final int STRIPES = 64;
+    private static final int MAX_LINES = 100;
+    static final int MAX_QUANTITY = 99;
+
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long idleEvictMs;
+
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public CartStore(CartItemRepository cartItemRepository,
+                     PlatformTransactionManager transactionManager,
+                     @Value("${cart.idle-evict-ms:1800000}") long idleEvictMs) {
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idleEvictMs = idleEvictMs;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Map<Long, Integer> items(String userEmail) {
+        return withCart(userEmail, false, cart -> new LinkedHashMap<>(cart.items));
+    }
+
+    public void add(String userEmail, long productId, int quantity) {
+        withCart(userEmail, true, cart -> {
+            requireCapacity(cart, productId);
+            return cart.items.merge(productId, Math.min(quantity, MAX_QUANTITY), (a, b) -> Math.min(a + b, MAX_QUANTITY));
+        });
+    }
+
+    public void setQuantity(String userEmail, long productId, int quantity) {
+        withCart(userEmail, true, cart -> {
+            if (quantity <= 0) {
+                return cart.items.remove(productId);
+            }
+            requireCapacity(cart, productId);
+            return cart.items.put(productId, Math.min(quantity, MAX_QUANTITY));
+        });
+    }
+
+    public void replace(String userEmail, Map<Long, Integer> items) {
+        if (items.size() > MAX_LINES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A cart can hold at most " + MAX_LINES + " products");
+        }
+        withCart(userEmail, true, cart -> {
+            cart.items.clear();
+            items.forEach((productId, quantity) -> {
+                if (quantity > 0) {
+                    cart.items.put(productId, Math.min(quantity, MAX_QUANTITY));
+                }
+            });
+            return null;
+        });
+    }
+
+    public void clear(String userEmail) {
+        withCart(userEmail, true, cart -> {
+            cart.items.clear();
+            return null;
+        });
+    }
+
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    @Scheduled(fixedDelayString = "${cart.flush-interval-ms:5000}")
+    public void flush() {
+        List<String> flushed = new ArrayList<>();
+        List<CartItem> rows = new ArrayList<>();
+        Iterator<String> pending = dirty.iterator();
+        while (pending.hasNext()) {
+            String userEmail = pending.next();
+            // unmark before snapshotting so an edit racing with the flush re-marks the cart
+            pending.remove();
+            flushed.add(userEmail);
+            items(userEmail).forEach((productId, quantity) -> rows.add(CartItem.builder()
+                    .userEmail(userEmail)
+                    .productId(productId)
+                    .quantity(quantity)
+                    .build()));
+        }
+
+        if (!flushed.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    cartItemRepository.deleteByUserEmails(flushed);
+                    cartItemRepository.saveAll(rows);
+                });
+                log.debug("Flushed {} carts with {} lines", flushed.size(), rows.size());
+            } catch (RuntimeException e) {
+                dirty.addAll(flushed);
+                log.warn("Cart flush failed for {} carts, will retry: {}", flushed.size(), e.getMessage());
+            }
+        }
+
+        evictIdle();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMs;
+        for (String userEmail : carts.keySet()) {
+            ReentrantLock lock = stripeFor(userEmail);
+            lock.lock();
+            try {
+                Cart cart = carts.get(userEmail);
+                if (cart != null && cart.lastAccess < cutoff && !dirty.contains(userEmail)) {
+                    carts.remove(userEmail);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private <T> T withCart(String userEmail, boolean mutate, Function<Cart, T> action) {
+        ReentrantLock lock = stripeFor(userEmail);
+        lock.lock();
+        try {
+            Cart cart = carts.get(userEmail);
+            if (cart == null) {
+                cart = load(userEmail);
+                carts.put(userEmail, cart);
+            }
+            cart.lastAccess = System.currentTimeMillis();
+            T result = action.apply(cart);
+            if (mutate) {
+                dirty.add(userEmail);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Cart load(String userEmail) {
+        Cart cart = new Cart();
+        cartItemRepository.findByUserEmailOrderById(userEmail)
+                .forEach(item -> cart.items.put(item.getProductId(), item.getQuantity()));
+        return cart;
+    }
+
+    private void requireCapacity(Cart cart, long productId) {
+        if (!cart.items.containsKey(productId) && cart.items.size() >= MAX_LINES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A cart can hold at most " + MAX_LINES + " products");
+        }
+    }
+
+    private ReentrantLock stripeFor(String userEmail) {
+        int hash = userEmail.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Cart {
+        private final Map<Long, Integer> items = new LinkedHashMap<>();
+        private long lastAccess;
+    }
+}
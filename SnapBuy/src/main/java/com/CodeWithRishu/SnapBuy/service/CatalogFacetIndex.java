@@ -0,0 +1,298 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.ProductSnapshotRow;
+import com.CodeWithRishu.SnapBuy.dto.response.FacetCountResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.PageResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductBrowseResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductSummaryResponse;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.event.ProductChangedEvent;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Roaring bitmap indexes over category, brand, price bucket and availability, with a summary of every
+ * product for hydrating results. Values within a facet are OR-ed and facets are AND-ed; each facet's
+ * counts ignore its own selection so the other values stay selectable. Kept current from product events.
+ */
+@Service
+@Slf4j
+public class CatalogFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String BRAND = "brand";
+    public static final String PRICE = "price";
+    public static final String AVAILABILITY = "availability";
+
+    static final String IN_STOCK = "in-stock";
+    static final String OUT_OF_STOCK = "out-of-stock";
+
+    private static final int LOAD_CHUNK_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final BigDecimal[] priceBounds;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Integer, ProductSummaryResponse> summaries = new HashMap<>();
+    private final Map<String, Facet> facets = new LinkedHashMap<>();
+
+    public CatalogFacetIndex(ProductRepository productRepository,
+                             @Value("${catalog.facets.price-buckets:25,50,100,250,500,1000}") BigDecimal[] priceBounds) {
+        this.productRepository = productRepository;
+        this.priceBounds = Arrays.stream(priceBounds).sorted().toArray(BigDecimal[]::new);
+        for (String facet : List.of(CATEGORY, BRAND, PRICE, AVAILABILITY)) {
+            facets.put(facet, new Facet());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        int loaded = 0;
+        List<ProductSnapshotRow> chunk;
+        while (!(chunk = productRepository.findSnapshotRowsAfter(afterId, PageRequest.of(0, LOAD_CHUNK_SIZE))).isEmpty()) {
+            chunk.forEach(row -> put(row.toProduct()));
+            afterId = chunk.getLast().id();
+            loaded += chunk.size();
+        }
+        log.info("Facet index loaded with {} products", loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.productId());
+        } else {
+            put(event.product());
+        }
+    }
+
+    public void put(Product product) {
+        ProductSummaryResponse summary = new ProductSummaryResponse(product.getId(), product.getName(), product.getBrand(),
+                product.getCategory(), product.getPrice(), product.isProductAvailable(), product.getStockQuantity(),
+                product.getImageHash());
+        lock.writeLock().lock();
+        try {
+            putLocked(summary);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stock written back without a product event, i.e. by the sharded stock sync.
+     */
+    public void updateStock(long productId, int stockQuantity) {
+        lock.writeLock().lock();
+        try {
+            ProductSummaryResponse summary = summaries.get(Math.toIntExact(productId));
+            if (summary != null && summary.stockQuantity() != stockQuantity) {
+                putLocked(summary.withStockQuantity(stockQuantity));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(Math.toIntExact(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Summaries of the given products in the given order, skipping ids that are not in the catalog.
+     */
+    public List<ProductSummaryResponse> summaries(List<Long> productIds) {
+        lock.readLock().lock();
+        try {
+            List<ProductSummaryResponse> found = new ArrayList<>(productIds.size());
+            for (long productId : productIds) {
+                ProductSummaryResponse summary = summaries.get(Math.toIntExact(productId));
+                if (summary != null) {
+                    found.add(summary);
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products matching {@code selected} (facet name to accepted values) in id order, plus the value
+     * counts of every facet.
+     */
+    public ProductBrowseResponse browse(Map<String, List<String>> selected, int page, int size) {
+        lock.readLock().lock();
+        try {
+            Map<String, RoaringBitmap> filters = new HashMap<>();
+            selected.forEach((name, values) -> {
+                Facet facet = facets.get(name);
+                if (facet != null && values != null && !values.isEmpty()) {
+                    filters.put(name, facet.union(values));
+                }
+            });
+
+            RoaringBitmap matching = intersect(filters, null);
+            List<ProductSummaryResponse> content = new ArrayList<>();
+            long from = (long) page * size;
+            for (long rank = from; rank < Math.min(from + size, matching.getLongCardinality()); rank++) {
+                content.add(summaries.get(matching.select((int) rank)));
+            }
+            int total = matching.getCardinality();
+            int totalPages = (total + size - 1) / size;
+            PageResponse<ProductSummaryResponse> results = new PageResponse<>(content, page, size, total, totalPages,
+                    page == 0, page >= totalPages - 1, content.isEmpty());
+
+            Map<String, List<FacetCountResponse>> counts = new LinkedHashMap<>();
+            facets.forEach((name, facet) -> counts.put(name, facet.counts(intersect(filters, name),
+                    normalize(selected.getOrDefault(name, List.of())), !PRICE.equals(name))));
+            return new ProductBrowseResponse(results, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap intersect(Map<String, RoaringBitmap> filters, String except) {
+        RoaringBitmap result = all.clone();
+        filters.forEach((name, bitmap) -> {
+            if (!name.equals(except)) {
+                result.and(bitmap);
+            }
+        });
+        return result;
+    }
+
+    private void putLocked(ProductSummaryResponse summary) {
+        int id = Math.toIntExact(summary.id());
+        removeLocked(id);
+        summaries.put(id, summary);
+        all.add(id);
+        facets.get(CATEGORY).add(summary.category(), id);
+        facets.get(BRAND).add(summary.brand(), id);
+        facets.get(PRICE).add(priceBucket(summary.price()), id);
+        facets.get(AVAILABILITY).add(summary.productAvailable() && summary.stockQuantity() > 0 ? IN_STOCK : OUT_OF_STOCK, id);
+    }
+
+    private void removeLocked(int id) {
+        ProductSummaryResponse previous = summaries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        all.remove(id);
+        facets.values().forEach(facet -> facet.remove(id));
+    }
+
+    String priceBucket(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal bound : priceBounds) {
+            if (price.compareTo(bound) < 0) {
+                return lower.toPlainString() + "-" + bound.toPlainString();
+            }
+            lower = bound;
+        }
+        return lower.toPlainString() + "+";
+    }
+
+    private static List<String> normalize(List<String> values) {
+        return values.stream().map(Facet::key).toList();
+    }
+
+    /**
+     * One bitmap per value, keyed case-insensitively and reported with the first spelling seen.
+     */
+    private static final class Facet {
+        private final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        private final Map<String, String> labels = new HashMap<>();
+        private final Map<Integer, String> keyById = new HashMap<>();
+
+        static String key(String value) {
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+
+        void add(String value, int id) {
+            if (value == null || value.isBlank()) {
+                return;
+            }
+            String key = key(value);
+            bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+            labels.putIfAbsent(key, value.trim());
+            keyById.put(id, key);
+        }
+
+        void remove(int id) {
+            String key = keyById.remove(id);
+            if (key == null) {
+                return;
+            }
+            RoaringBitmap bitmap = bitmaps.get(key);
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+                labels.remove(key);
+            }
+        }
+
+        RoaringBitmap union(List<String> values) {
+            RoaringBitmap union = new RoaringBitmap();
+            for (String value : values) {
+                RoaringBitmap bitmap = bitmaps.get(key(value));
+                if (bitmap != null) {
+                    union.or(bitmap);
+                }
+            }
+            return union;
+        }
+
+        /**
+         * Values with matches under {@code base}, plus selected ones even at zero so they can be cleared.
+         */
+        List<FacetCountResponse> counts(RoaringBitmap base, List<String> selectedKeys, boolean byCount) {
+            List<FacetCountResponse> counts = new ArrayList<>();
+            bitmaps.forEach((key, bitmap) -> {
+                int count = RoaringBitmap.andCardinality(base, bitmap);
+                boolean selected = selectedKeys.contains(key);
+                if (count > 0 || selected) {
+                    counts.add(new FacetCountResponse(labels.get(key), count, selected));
+                }
+            });
+            Comparator<FacetCountResponse> order = byCount
+                    ? Comparator.comparingInt(FacetCountResponse::count).reversed().thenComparing(FacetCountResponse::value)
+                    : Comparator.comparing(FacetCountResponse::value, Comparator.comparing(CatalogFacetIndex::lowerBound));
+            counts.sort(order);
+            return counts;
+        }
+    }
+
+    private static BigDecimal lowerBound(String priceBucket) {
+        int end = priceBucket.indexOf('-');
+        return new BigDecimal(priceBucket.substring(0, end >= 0 ? end : priceBucket.length() - 1));
+    }
+}
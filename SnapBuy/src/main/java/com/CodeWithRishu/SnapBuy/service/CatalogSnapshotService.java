@@ -0,0 +1,168 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.ProductSnapshotRow;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Immutable in-memory copy of the catalog for the storefront listing. Products are kept as arrays sorted
+ * by every supported key, and the first pages of each sort and page size are pre-serialized exactly as
+ * {@code Page<Product>} would be rendered. A background task rebuilds
+ * the snapshot whenever {@link CatalogVersion} moves and swaps it in atomically; a stale snapshot is never
+ * served, callers fall back to the database instead.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService {
+
+    private static final Map<String, Comparator<Product>> SORT_KEYS = Map.of(
+            "id", Comparator.comparingLong(Product::getId),
+            "name", nullsFirst(Product::getName, String.CASE_INSENSITIVE_ORDER),
+            "price", nullsFirst(Product::getPrice, Comparator.<BigDecimal>naturalOrder()),
+            "category", nullsFirst(Product::getCategory, String.CASE_INSENSITIVE_ORDER));
+
+    private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int[] pageSizes;
+    private final int prerenderedPages;
+    private final int loadChunkSize;
+
+    private volatile Snapshot snapshot;
+
+    public CatalogSnapshotService(ProductRepository productRepository,
+                                  CatalogVersion catalogVersion,
+                                  ObjectMapper objectMapper,
+                                  @Value("${catalog.snapshot.enabled:true}") boolean enabled,
+                                  @Value("${catalog.snapshot.page-sizes:6,12,24,48}") int[] pageSizes,
+                                  @Value("${catalog.snapshot.prerendered-pages:5}") int prerenderedPages,
+                                  @Value("${catalog.snapshot.load-chunk-size:1000}") int loadChunkSize) {
+        this.productRepository = productRepository;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.pageSizes = pageSizes;
+        this.prerenderedPages = prerenderedPages;
+        this.loadChunkSize = loadChunkSize;
+    }
+
+    private record Snapshot(long version, Map<String, Product[]> sorted, Map<String, byte[]> rendered) {
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.snapshot.refresh-ms:1000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        // read before loading, so a write that lands mid-build leaves the snapshot stale and triggers another pass
+        long version = catalogVersion.version();
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version) {
+            return;
+        }
+        long started = System.nanoTime();
+        snapshot = build(version);
+        log.info("Catalog snapshot {} built with {} products in {} ms", version,
+                snapshot.sorted().get("id").length, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * JSON of the requested listing page from the snapshot, or empty if the snapshot is stale or the request
+     * uses a sort key or direction it does not cover.
+     */
+    public Optional<byte[]> page(int page, int size, String sortBy, String sortDirection) {
+        Snapshot current = snapshot;
+        if (current == null || current.version() != catalogVersion.version()
+                || page < 0 || size < 1 || !SORT_KEYS.containsKey(sortBy)) {
+            return Optional.empty();
+        }
+        Sort.Direction direction = Sort.Direction.fromOptionalString(sortDirection).orElse(null);
+        if (direction == null) {
+            return Optional.empty();
+        }
+
+        byte[] rendered = current.rendered().get(key(sortBy, direction, size, page));
+        if (rendered != null) {
+            return Optional.of(rendered);
+        }
+        // past the pre-rendered pages: still no database work, only serialization
+        return Optional.of(serialize(current.sorted().get(sortBy), sortBy, direction, page, size));
+    }
+
+    private Snapshot build(long version) {
+        List<Product> products = new ArrayList<>();
+        long afterId = 0;
+        while (true) {
+            List<ProductSnapshotRow> chunk = productRepository.findSnapshotRowsAfter(afterId, PageRequest.of(0, loadChunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            chunk.forEach(row -> products.add(row.toProduct()));
+            afterId = chunk.getLast().id();
+        }
+
+        Map<String, Product[]> sorted = new HashMap<>();
+        Map<String, byte[]> rendered = new HashMap<>();
+        SORT_KEYS.forEach((sortBy, comparator) -> {
+            Product[] ordered = products.toArray(Product[]::new);
+            Arrays.sort(ordered, comparator.thenComparingLong(Product::getId));
+            sorted.put(sortBy, ordered);
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                for (int size : pageSizes) {
+                    int pages = Math.max(1, Math.min(prerenderedPages, (ordered.length + size - 1) / size));
+                    for (int page = 0; page < pages; page++) {
+                        rendered.put(key(sortBy, direction, size, page), serialize(ordered, sortBy, direction, page, size));
+                    }
+                }
+            }
+        });
+        return new Snapshot(version, Map.copyOf(sorted), Map.copyOf(rendered));
+    }
+
+    /**
+     * Same JSON as the controller's {@code Page<Product>}; descending order walks the ascending array backwards.
+     */
+    private byte[] serialize(Product[] ascending, String sortBy, Sort.Direction direction, int page, int size) {
+        int from = (int) Math.min((long) page * size, ascending.length);
+        int to = Math.min(from + size, ascending.length);
+        List<Product> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(direction.isAscending() ? ascending[i] : ascending[ascending.length - 1 - i]);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(
+                    new PageImpl<>(content, PageRequest.of(page, size, Sort.by(direction, sortBy)), ascending.length));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String key(String sortBy, Sort.Direction direction, int size, int page) {
+        return sortBy + ':' + direction + ':' + size + ':' + page;
+    }
+
+    private static <T> Comparator<Product> nullsFirst(Function<Product, T> field, Comparator<T> order) {
+        return Comparator.comparing(field, Comparator.nullsFirst(order));
+    }
+}
@@ -0,0 +1,75 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.event.ProductChangedEvent;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Monotonic version of the whole catalog, bumped after every committed product write. Catalog
+ * endpoints derive their validators from it, so a conditional GET is answered without touching the DB.
+ * Sales are not product writes: stock is left out of catalog responses and served by /api/products/stock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogVersion {
+
+    private final ProductRepository productRepository;
+    private final AtomicReference<State> state = new AtomicReference<>();
+
+    /**
+     * One consistent reading of the version and its validators.
+     */
+    public record State(long version, Instant lastModified) {
+
+        public String etag() {
+            return "W/\"catalog-" + version + "\"";
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        // start from the clock so validators handed out before a restart never match again
+        Instant lastModified = productRepository.findLatestUpdate().orElse(Instant.now());
+        state.set(new State(System.currentTimeMillis(), lastModified.truncatedTo(ChronoUnit.SECONDS)));
+        log.info("Catalog version initialised, last modified {}", lastModified);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        bump();
+    }
+
+    public void bump() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        state.updateAndGet(current -> new State(current.version() + 1,
+                now.isAfter(current.lastModified()) ? now : current.lastModified()));
+    }
+
+    /**
+     * Read this once per request when several values are needed, so they cannot straddle a bump.
+     */
+    public State current() {
+        return state.get();
+    }
+
+    public long version() {
+        return state.get().version();
+    }
+
+    public String etag() {
+        return state.get().etag();
+    }
+
+    public Instant lastModified() {
+        return state.get().lastModified();
+    }
+}
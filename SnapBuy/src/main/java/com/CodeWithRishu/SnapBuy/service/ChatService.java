@@ -4,11 +4,15 @@ import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.document.Document;
 import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
-import org.springframework.ai.rag.retrieval.search.VectorStoreDocumentRetriever;
-import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.rag.generation.augmentation.ContextualQueryAugmenter;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Service
 public class ChatService {
 
@@ -16,15 +20,12 @@ public class ChatService {
     private final RetrievalAugmentationAdvisor ragAdvisor;
     private final MessageChatMemoryAdvisor memoryAdvisor;
 
-    public ChatService(ChatClient.Builder chatClientBuilder, VectorStore vectorStore) {
-        var documentRetriever = VectorStoreDocumentRetriever.builder()
-                .vectorStore(vectorStore)
-                .topK(5)
-                .similarityThreshold(0.5d)
-                .build();
-
+    public ChatService(ChatClient.Builder chatClientBuilder, HybridDocumentRetriever documentRetriever) {
         this.ragAdvisor = RetrievalAugmentationAdvisor.builder()
                 .documentRetriever(documentRetriever)
+                .queryAugmenter(ContextualQueryAugmenter.builder()
+                        .documentFormatter(ChatService::formatDocuments)
+                        .build())
                 .build();
 
         this.memoryAdvisor = MessageChatMemoryAdvisor.builder(
@@ -47,4 +48,19 @@ public class ChatService {
             return "Bot Failed: " + e.getMessage();
         }
     }
-}
\ No newline at end of file
+
+    private static String formatDocuments(List<Document> documents) {
+        return documents.stream()
+                .map(document -> {
+                    Map<String, Object> metadata = document.getMetadata();
+                    if (!metadata.containsKey(ProductVectorIndexer.PRODUCT_ID)) {
+                        return document.getText();
+                    }
+                    return document.getText()
+                            + "Price: " + metadata.get(ProductVectorIndexer.PRICE) + System.lineSeparator()
+                            + "Available: " + metadata.get(ProductVectorIndexer.AVAILABLE) + System.lineSeparator()
+                            + "Stock: " + metadata.get(ProductVectorIndexer.STOCK) + System.lineSeparator();
+                })
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
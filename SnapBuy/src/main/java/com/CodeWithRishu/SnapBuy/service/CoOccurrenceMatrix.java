@@ -0,0 +1,127 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sparse, symmetric product co-occurrence counts over orders. A pair of product ids is packed into one
+ * long key of a primitive map, so counting needs no boxed objects however many pairs there are.
+ * Neighbours are ranked by cosine similarity, {@code both / sqrt(ordersOfA * ordersOfB)}, which keeps
+ * products that are simply in every basket from dominating every list.
+ */
+final class CoOccurrenceMatrix {
+
+    record Neighbours(long[] productIds, double[] scores) {
+    }
+
+    private final int maxItemsPerOrder;
+    private final LongIntHashMap orderCounts = new LongIntHashMap(1 << 12);
+    private final LongIntHashMap pairCounts = new LongIntHashMap(1 << 16);
+
+    CoOccurrenceMatrix(int maxItemsPerOrder) {
+        this.maxItemsPerOrder = maxItemsPerOrder;
+    }
+
+    /**
+     * Counts one order. Repeated lines collapse into one, and very large orders are cut to their first
+     * {@code maxItemsPerOrder} distinct products since the pair count grows quadratically.
+     */
+    void addOrder(long[] productIds, int length) {
+        long[] distinct = Arrays.copyOf(productIds, length);
+        Arrays.sort(distinct);
+        int n = 0;
+        for (int i = 0; i < distinct.length && n < maxItemsPerOrder; i++) {
+            if (n == 0 || distinct[i] != distinct[n - 1]) {
+                distinct[n++] = distinct[i];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            orderCounts.addTo(distinct[i], 1);
+            for (int j = i + 1; j < n; j++) {
+                pairCounts.addTo(pack(distinct[i], distinct[j]), 1);
+            }
+        }
+    }
+
+    int pairs() {
+        return pairCounts.size();
+    }
+
+    /**
+     * Up to {@code limit} neighbours per product, strongest first, from pairs bought together in at
+     * least {@code minSupport} orders.
+     */
+    Map<Long, Neighbours> topNeighbours(int limit, int minSupport) {
+        LongIntHashMap slots = new LongIntHashMap(orderCounts.size());
+        int[] nextSlot = {0};
+        int capacity = orderCounts.size();
+        long[] ids = new long[capacity * limit];
+        double[] scores = new double[capacity * limit];
+        int[] sizes = new int[capacity];
+
+        pairCounts.forEach((pair, count) -> {
+            if (count < minSupport) {
+                return;
+            }
+            long a = pair >>> 32;
+            long b = pair & 0xFFFFFFFFL;
+            double score = count / Math.sqrt((double) orderCounts.get(a) * orderCounts.get(b));
+            offer(slot(slots, a, nextSlot), b, score, limit, ids, scores, sizes);
+            offer(slot(slots, b, nextSlot), a, score, limit, ids, scores, sizes);
+        });
+
+        Map<Long, Neighbours> neighbours = new HashMap<>(nextSlot[0] * 2);
+        slots.forEach((productId, slotPlusOne) -> {
+            int slot = slotPlusOne - 1;
+            int from = slot * limit;
+            neighbours.put(productId, new Neighbours(
+                    Arrays.copyOfRange(ids, from, from + sizes[slot]),
+                    Arrays.copyOfRange(scores, from, from + sizes[slot])));
+        });
+        return neighbours;
+    }
+
+    private static int slot(LongIntHashMap slots, long productId, int[] nextSlot) {
+        int slotPlusOne = slots.get(productId);
+        if (slotPlusOne == 0) {
+            slotPlusOne = ++nextSlot[0];
+            slots.addTo(productId, slotPlusOne);
+        }
+        return slotPlusOne - 1;
+    }
+
+    /**
+     * Insertion into the slot's fixed-size run, kept sorted by descending score (ties by lower id).
+     */
+    private static void offer(int slot, long productId, double score, int limit,
+                              long[] ids, double[] scores, int[] sizes) {
+        int from = slot * limit;
+        int size = sizes[slot];
+        if (size == limit && !better(score, productId, scores[from + size - 1], ids[from + size - 1])) {
+            return;
+        }
+        int i = size == limit ? size - 1 : size;
+        while (i > 0 && better(score, productId, scores[from + i - 1], ids[from + i - 1])) {
+            ids[from + i] = ids[from + i - 1];
+            scores[from + i] = scores[from + i - 1];
+            i--;
+        }
+        ids[from + i] = productId;
+        scores[from + i] = score;
+        if (size < limit) {
+            sizes[slot] = size + 1;
+        }
+    }
+
+    private static boolean better(double score, long productId, double otherScore, long otherId) {
+        return score > otherScore || (score == otherScore && productId < otherId);
+    }
+
+    private static long pack(long lower, long higher) {
+        if ((lower >>> 32) != 0 || (higher >>> 32) != 0) {
+            throw new IllegalArgumentException("Product ids must fit in 32 bits");
+        }
+        return (lower << 32) | higher;
+    }
+}
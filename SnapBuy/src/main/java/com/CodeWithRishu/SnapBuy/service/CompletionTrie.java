@@ -0,0 +1,198 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Radix tree from normalized keys to weighted values. Every node caches the best {@code k} distinct
+ * values beneath it, so a lookup is a walk down the prefix and returns that cached list; updates only
+ * recompute the caches along the touched path. Not thread-safe.
+ */
+final class CompletionTrie<T> {
+
+    private final int k;
+    private final Comparator<T> order;
+    private final Node<T> root = new Node<>("");
+
+    CompletionTrie(int k, Comparator<T> order) {
+        this.k = k;
+        this.order = order;
+    }
+
+    void insert(String key, T value) {
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> node = root;
+        path.push(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node<T> child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node<>(key.substring(i));
+                node.addChild(child);
+                i = key.length();
+            } else {
+                int common = commonPrefix(child.label, key, i);
+                if (common < child.label.length()) {
+                    child = split(node, child, common);
+                }
+                i += common;
+            }
+            node = child;
+            path.push(node);
+        }
+        node.values.add(value);
+        refresh(path);
+    }
+
+    boolean remove(String key, T value) {
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> node = root;
+        path.push(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node<T> child = node.child(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return false;
+            }
+            i += child.label.length();
+            node = child;
+            path.push(node);
+        }
+        if (!node.values.remove(value)) {
+            return false;
+        }
+        refresh(path);
+        return true;
+    }
+
+    /**
+     * Best values under {@code prefix}, at most {@code limit} and never more than {@code k}.
+     */
+    List<T> top(String prefix, int limit) {
+        Node<T> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node<T> child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common < prefix.length() && common < child.label.length()) {
+                return List.of();
+            }
+            // the prefix may end part-way along the edge; everything below the child still matches
+            i += common;
+            node = child;
+        }
+        return node.top.subList(0, Math.min(limit, node.top.size()));
+    }
+
+    /**
+     * Walks the path bottom-up, dropping nodes left without values or children, merging single-child
+     * nodes into their child and recomputing the cached top values of the rest.
+     */
+    private void refresh(Deque<Node<T>> path) {
+        while (!path.isEmpty()) {
+            Node<T> node = path.pop();
+            Node<T> parent = path.peek();
+            if (parent != null && node.values.isEmpty()) {
+                if (node.children.length == 0) {
+                    parent.removeChild(node);
+                    continue;
+                }
+                if (node.children.length == 1) {
+                    Node<T> only = node.children[0];
+                    only.label = node.label + only.label;
+                    parent.replaceChild(node, only);
+                    continue;
+                }
+            }
+            node.top = best(node);
+        }
+    }
+
+    private List<T> best(Node<T> node) {
+        List<T> candidates = new ArrayList<>(node.values);
+        for (Node<T> child : node.children) {
+            candidates.addAll(child.top);
+        }
+        return candidates.stream().distinct().sorted(order).limit(k).toList();
+    }
+
+    private Node<T> split(Node<T> parent, Node<T> child, int at) {
+        Node<T> head = new Node<>(child.label.substring(0, at));
+        parent.replaceChild(child, head);
+        child.label = child.label.substring(at);
+        head.addChild(child);
+        return head;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node<T> {
+        String label;
+        @SuppressWarnings("unchecked")
+        Node<T>[] children = new Node[0];
+        final List<T> values = new ArrayList<>(1);
+        List<T> top = List.of();
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node<T> child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node<T> child) {
+            int insertAt = -indexOf(child.label.charAt(0)) - 1;
+            Node<T>[] grown = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+            grown[insertAt] = child;
+            children = grown;
+        }
+
+        void replaceChild(Node<T> previous, Node<T> replacement) {
+            children[indexOf(previous.label.charAt(0))] = replacement;
+        }
+
+        void removeChild(Node<T> child) {
+            int index = indexOf(child.label.charAt(0));
+            Node<T>[] shrunk = Arrays.copyOf(children, children.length - 1);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+
+        /**
+         * Binary search on the first label character, which is unique among siblings.
+         */
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Exponentially decayed counters, one value per configured half-life, spread over lock stripes so
+ * concurrent orders for different keys do not contend. A counter stores its values as of its last
+ * update and is decayed lazily on write and read, so nothing has to sweep the map as time passes.
+ * Alongside the values each counter keeps what was added since it was last drained, so checkpoints
+ * can write increments rather than totals.
+ */
+final class DecayedCounters<K> {
+
+    record Scored<K>(K key, String group, double score) {
+    }
+
+    record Snapshot<K>(K key, String group, double[] deltas, long at) {
+    }
+
+    private static final class Counter {
+        String group;
+        final double[] values;
+        final double[] pending;
+        long updatedAt;
+        boolean dirty;
+
+        Counter(int size) {
+            this.values = new double[size];
+            this.pending = new double[size];
+        }
+    }
+
+    private final double[] halfLivesMillis;
+    private final ReentrantLock[] locks;
+    private final List<Map<K, Counter>> stripes;
+
+    DecayedCounters(int stripes, double... halfLivesMillis) {
+        this.halfLivesMillis = halfLivesMillis.clone();
+        this.locks = new ReentrantLock[stripes];
+        this.stripes = new ArrayList<>(stripes);
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+            this.stripes.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds {@code amount}, counted as of {@code at}, to every value of {@code key}, recording {@code group}
+     * as its latest group. An amount older than the counter is decayed to the counter's time first, so
+     * a negative one takes back exactly what the same amount added at {@code at} still contributes.
+     */
+    void add(K key, String group, double amount, long at) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            Counter counter = stripes.get(stripe).computeIfAbsent(key, k -> new Counter(halfLivesMillis.length));
+            decay(counter, at);
+            long late = counter.updatedAt - at;
+            for (int i = 0; i < counter.values.length; i++) {
+                double decayed = late > 0 ? amount * Math.pow(0.5, late / halfLivesMillis[i]) : amount;
+                counter.values[i] += decayed;
+                counter.pending[i] += decayed;
+            }
+            counter.group = group;
+            counter.dirty = true;
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Puts back a checkpointed counter, keeping it clean so it is not written again unchanged.
+     */
+    void restore(K key, String group, double[] values, long at) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            Counter counter = new Counter(halfLivesMillis.length);
+            System.arraycopy(values, 0, counter.values, 0, counter.values.length);
+            counter.group = group;
+            counter.updatedAt = at;
+            stripes.get(stripe).put(key, counter);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    void remove(K key) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            stripes.get(stripe).remove(key);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * The {@code k} highest values at index {@code value} as of {@code now}, kept in a size-bounded
+     * min-heap while the stripes are walked one at a time.
+     */
+    List<Scored<K>> top(int value, int k, Predicate<String> groupFilter, long now) {
+        if (k < 1) {
+            return List.of();
+        }
+        PriorityQueue<Scored<K>> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Scored::score));
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            locks[stripe].lock();
+            try {
+                for (Map.Entry<K, Counter> entry : stripes.get(stripe).entrySet()) {
+                    Counter counter = entry.getValue();
+                    if (!groupFilter.test(counter.group)) {
+                        continue;
+                    }
+                    double score = decayed(counter, value, now);
+                    if (heap.size() < k) {
+                        heap.add(new Scored<>(entry.getKey(), counter.group, score));
+                    } else if (score > heap.peek().score()) {
+                        heap.poll();
+                        heap.add(new Scored<>(entry.getKey(), counter.group, score));
+                    }
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        List<Scored<K>> top = new ArrayList<>(heap);
+        top.sort(Comparator.comparingDouble(Scored<K>::score).reversed());
+        return top;
+    }
+
+    /**
+     * What was added to each counter since the last call, decayed to {@code now}; counters are marked
+     * clean and their increments reset as they are read.
+     */
+    List<Snapshot<K>> drainDirty(long now) {
+        List<Snapshot<K>> dirty = new ArrayList<>();
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            locks[stripe].lock();
+            try {
+                for (Map.Entry<K, Counter> entry : stripes.get(stripe).entrySet()) {
+                    Counter counter = entry.getValue();
+                    if (counter.dirty) {
+                        decay(counter, now);
+                        counter.dirty = false;
+                        dirty.add(new Snapshot<>(entry.getKey(), counter.group, counter.pending.clone(), now));
+                        Arrays.fill(counter.pending, 0);
+                    }
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        return dirty;
+    }
+
+    /**
+     * Puts the increments of a checkpoint that failed to write them back, so the next drain includes them.
+     */
+    void requeue(List<Snapshot<K>> snapshots) {
+        for (Snapshot<K> snapshot : snapshots) {
+            int stripe = stripe(snapshot.key());
+            locks[stripe].lock();
+            try {
+                Counter counter = stripes.get(stripe).get(snapshot.key());
+                if (counter != null) {
+                    long elapsed = Math.max(0, counter.updatedAt - snapshot.at());
+                    for (int i = 0; i < counter.pending.length; i++) {
+                        counter.pending[i] += snapshot.deltas()[i] * Math.pow(0.5, elapsed / halfLivesMillis[i]);
+                    }
+                    counter.dirty = true;
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    private void decay(Counter counter, long now) {
+        if (now > counter.updatedAt) {
+            for (int i = 0; i < counter.values.length; i++) {
+                double factor = Math.pow(0.5, (now - counter.updatedAt) / halfLivesMillis[i]);
+                counter.values[i] *= factor;
+                counter.pending[i] *= factor;
+            }
+            counter.updatedAt = now;
+        }
+    }
+
+    private double decayed(Counter counter, int value, long now) {
+        long elapsed = Math.max(0, now - counter.updatedAt);
+        return counter.values[value] * Math.pow(0.5, elapsed / halfLivesMillis[value]);
+    }
+
+    private int stripe(K key) {
+        int hash = key.hashCode();
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % locks.length;
+    }
+}
@@ -0,0 +1,83 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.config.ChatRetrievalProp;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Fuses BM25 keyword hits with dense vector hits using reciprocal rank fusion.
+ * Query embeddings are cached by the {@link CachingEmbeddingModel} the vector store embeds through.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HybridDocumentRetriever implements DocumentRetriever {
+
+    private static final String IN_STOCK_FILTER = ProductVectorIndexer.AVAILABLE + " == true && " + ProductVectorIndexer.STOCK + " > 0";
+
+    private final VectorStore vectorStore;
+    private final ProductKeywordIndex keywordIndex;
+    private final ChatRetrievalProp prop;
+
+    @Override
+    public List<Document> retrieve(Query query) {
+        String text = query.text().trim().replaceAll("\\s+", " ");
+
+        List<Document> keywordHits = keywordIndex.search(text, prop.getCandidatesPerSource(), metadataFilter());
+        List<Document> vectorHits = vectorStore.similaritySearch(vectorRequest(text));
+
+        Map<String, Double> fusedScores = new HashMap<>();
+        Map<String, Document> documents = new LinkedHashMap<>();
+        accumulate(keywordHits, fusedScores, documents);
+        accumulate(vectorHits, fusedScores, documents);
+
+        List<Document> fused = fusedScores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(prop.getTopK())
+                .map(entry -> documents.get(entry.getKey()))
+                .toList();
+
+        log.debug("Hybrid retrieval for '{}': {} keyword hits, {} vector hits, {} fused", text, keywordHits.size(), vectorHits.size(), fused.size());
+        return fused;
+    }
+
+    private void accumulate(List<Document> ranked, Map<String, Double> fusedScores, Map<String, Document> documents) {
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            Document document = ranked.get(rank);
+            fusedScores.merge(document.getId(), 1.0 / (prop.getRrfK() + rank + 1), Double::sum);
+            documents.putIfAbsent(document.getId(), document);
+        }
+    }
+
+    private SearchRequest vectorRequest(String text) {
+        SearchRequest.Builder builder = SearchRequest.builder()
+                .query(text)
+                .topK(prop.getCandidatesPerSource())
+                .similarityThreshold(prop.getSimilarityThreshold());
+        if (prop.isInStockOnly()) {
+            builder.filterExpression(IN_STOCK_FILTER);
+        }
+        return builder.build();
+    }
+
+    private Predicate<Map<String, Object>> metadataFilter() {
+        if (!prop.isInStockOnly()) {
+            return metadata -> true;
+        }
+        return metadata -> Boolean.TRUE.equals(metadata.get(ProductVectorIndexer.AVAILABLE))
+                && metadata.get(ProductVectorIndexer.STOCK) instanceof Number stock && stock.intValue() > 0;
+    }
+}
@@ -0,0 +1,315 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.HeldQuantityRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.ReservationStatus;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductStockResponse;
+import com.CodeWithRishu.SnapBuy.entity.InventoryReservation;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.event.OrderStatusChangedEvent;
+import com.CodeWithRishu.SnapBuy.repository.InventoryReservationRepository;
+import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds stock for orders awaiting payment. Each product keeps an in-memory counter of held units,
+ * so a reservation is a CAS against {@code stockQuantity - held} instead of a lock on the product row.
+ * Holds are persisted in {@code inventory_reservations}; the counters are rebuilt from that table on startup.
+ */
+@Service
+@Slf4j
+public class InventoryReservationService {
+
+    private static final Set<OrderStatus> AWAITING_PAYMENT = EnumSet.of(OrderStatus.PLACED, OrderStatus.PENDING);
+    private static final Set<OrderStatus> NOT_SOLD = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.RETURNED);
+    private static final Comparator<InventoryReservation> DECREMENT_ORDER = Comparator
+            .comparingLong(InventoryReservation::getProductId)
+            .thenComparing(InventoryReservation::getId);
+
+    private final InventoryReservationRepository reservationRepository;
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final ShardedStockService shardedStockService;
+    private final ProductVectorIndexer productVectorIndexer;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final OrderStatusService orderStatusService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate freshReadTemplate;
+    private final Duration holdTtl;
+    private final int sweepBatchSize;
+
+    private final Map<Long, AtomicInteger> held = new ConcurrentHashMap<>();
+
+    public InventoryReservationService(InventoryReservationRepository reservationRepository,
+                                       OrderRepository orderRepository,
+                                       ProductRepository productRepository,
+                                       ShardedStockService shardedStockService,
+                                       ProductVectorIndexer productVectorIndexer,
+                                       CatalogFacetIndex catalogFacetIndex,
+                                       OrderStatusService orderStatusService,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${inventory.hold-ttl-minutes:75}") long holdTtlMinutes,
+                                       @Value("${inventory.sweep-batch-size:500}") int sweepBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.shardedStockService = shardedStockService;
+        this.productVectorIndexer = productVectorIndexer;
+        this.catalogFacetIndex = catalogFacetIndex;
+        this.orderStatusService = orderStatusService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.freshReadTemplate = new TransactionTemplate(transactionManager);
+        this.freshReadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.freshReadTemplate.setReadOnly(true);
+        this.holdTtl = Duration.ofMinutes(holdTtlMinutes);
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    @PostConstruct
+    void loadHeldCounters() {
+        List<HeldQuantityRow> rows = reservationRepository.sumHeldByProduct();
+        rows.forEach(row -> held.put(row.productId(), new AtomicInteger((int) row.quantity())));
+        log.info("Loaded held stock for {} products", rows.size());
+    }
+
+    public int available(long productId, int stockQuantity) {
+        AtomicInteger counter = held.get(productId);
+        return shardedStockService.totalStock(productId, stockQuantity) - (counter != null ? counter.get() : 0);
+    }
+
+    /**
+     * Sellable stock of the given products right now. Served apart from the versioned catalog
+     * responses, which leave stock out so that sales do not invalidate them.
+     */
+    public List<ProductStockResponse> stock(Collection<Long> productIds) {
+        return productRepository.findCartRows(productIds).stream()
+                .map(product -> {
+                    int available = Math.max(0, available(product.id(), product.stockQuantity()));
+                    return new ProductStockResponse(product.id(), available, product.productAvailable() && available > 0);
+                })
+                .toList();
+    }
+
+    /**
+     * Holds stock for every product of the order. Must run inside the order's transaction:
+     * the in-memory holds are given back if that transaction rolls back.
+     */
+    public void reserve(String orderId, Map<Long, Integer> quantities, Map<Long, Product> products) {
+        // fixed product order keeps concurrent multi-item orders from starving each other
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+        Map<Long, Integer> acquired = new TreeMap<>();
+
+        for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+            Product product = products.get(entry.getKey());
+            int stock = shardedStockService.totalStock(product.getId(), product.getStockQuantity());
+            if (!tryHold(product.getId(), stock, entry.getValue())) {
+                acquired.forEach(this::unhold);
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient stock for product: " + product.getName());
+            }
+            acquired.put(entry.getKey(), entry.getValue());
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    acquired.forEach(InventoryReservationService.this::unhold);
+                }
+            }
+        });
+
+        Instant expiresAt = Instant.now().plus(holdTtl);
+        reservationRepository.saveAll(sorted.entrySet().stream()
+                .map(entry -> InventoryReservation.builder()
+                        .orderId(orderId)
+                        .productId(entry.getKey())
+                        .quantity(entry.getValue())
+                        .expiresAt(expiresAt)
+                        .status(ReservationStatus.HELD)
+                        .build())
+                .toList());
+    }
+
+    /**
+     * Turns the orders' holds into sales: the hold rows are claimed under lock, stock is decremented
+     * with a guarded UPDATE and the held counters drop once the transaction commits.
+     */
+    public void convertToSale(Collection<String> orderIds) {
+        transactionTemplate.executeWithoutResult(status -> sell(reservationRepository.lockHeldForOrders(orderIds)));
+    }
+
+    public void release(Collection<String> orderIds) {
+        transactionTemplate.executeWithoutResult(status -> giveBack(reservationRepository.lockHeldForOrders(orderIds)));
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.status() == OrderStatus.CONFIRMED) {
+            convertToSale(List.of(event.orderId()));
+        } else if (event.status() == OrderStatus.CANCELLED) {
+            release(List.of(event.orderId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.sweep-interval-ms:30000}")
+    public void sweepExpiredHolds() {
+        List<String> orderIds;
+        while (!(orderIds = reservationRepository.findExpiredOrderIds(Instant.now(), PageRequest.of(0, sweepBatchSize))).isEmpty()) {
+            List<String> batch = orderIds;
+            Integer cancelled = transactionTemplate.execute(status -> expire(batch));
+            log.info("Settled expired holds for {} orders, {} of them cancelled unpaid", batch.size(), cancelled);
+        }
+    }
+
+    /**
+     * Settles one batch of expired holds in a single transaction. The order rows are locked before their
+     * holds, as on the payment path, so a confirmation either commits first and the hold is sold here, or
+     * waits and finds the order already cancelled. Only orders still awaiting payment are cancelled.
+     */
+    private int expire(List<String> orderIds) {
+        Map<String, OrderStatus> statuses = new HashMap<>();
+        orderRepository.lockStatuses(orderIds).forEach(row -> statuses.put(row.orderId(), row.status()));
+
+        List<String> unpaid = new ArrayList<>();
+        List<String> paid = new ArrayList<>();
+        List<String> closed = new ArrayList<>();
+        for (String orderId : orderIds) {
+            OrderStatus status = statuses.get(orderId);
+            if (AWAITING_PAYMENT.contains(status)) {
+                unpaid.add(orderId);
+            } else if (status == null || NOT_SOLD.contains(status)) {
+                closed.add(orderId);
+            } else {
+                // paid but its conversion never ran, so the hold is sold instead of being handed back
+                paid.add(orderId);
+            }
+        }
+
+        if (!paid.isEmpty()) {
+            sell(reservationRepository.lockHeldForOrders(paid));
+        }
+        List<String> released = new ArrayList<>(unpaid);
+        released.addAll(closed);
+        giveBack(reservationRepository.lockHeldForOrders(released));
+        if (unpaid.isEmpty()) {
+            return 0;
+        }
+        return orderStatusService.transition(unpaid, OrderStatus.CANCELLED).updated();
+    }
+
+    /**
+     * Decrements stock for each claimed hold. A hold the stock can no longer cover is flagged
+     * {@link ReservationStatus#SHORTFALL} rather than sold, so a paid order is never oversold.
+     */
+    private void sell(List<InventoryReservation> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        // product order keeps concurrent conversions from deadlocking on the stock rows
+        List<InventoryReservation> sorted = new ArrayList<>(rows);
+        sorted.sort(DECREMENT_ORDER);
+        List<Long> converted = new ArrayList<>(rows.size());
+        List<Long> shortfall = new ArrayList<>();
+        for (InventoryReservation row : sorted) {
+            long productId = row.getProductId();
+            boolean taken = shardedStockService.isSharded(productId)
+                    ? shardedStockService.decrement(productId, row.getQuantity())
+                    : productRepository.decrementStock(productId, row.getQuantity()) == 1;
+            if (taken) {
+                converted.add(row.getId());
+            } else {
+                shortfall.add(row.getId());
+                log.error("Stock for product {} cannot cover the {} units held for order {}, hold flagged {}",
+                        productId, row.getQuantity(), row.getOrderId(), ReservationStatus.SHORTFALL);
+            }
+        }
+        if (!converted.isEmpty()) {
+            reservationRepository.updateStatus(converted, ReservationStatus.CONVERTED);
+        }
+        if (!shortfall.isEmpty()) {
+            reservationRepository.updateStatus(shortfall, ReservationStatus.SHORTFALL);
+        }
+        Map<Long, Integer> quantities = quantities(rows);
+        // registered after the shard decrements, so a sharded total drops before its hold is given back
+        TransactionCallbacks.afterCommit(() -> {
+            quantities.forEach(this::unhold);
+            reindex(quantities.keySet());
+        });
+    }
+
+    private void giveBack(List<InventoryReservation> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        reservationRepository.updateStatus(rows.stream().map(InventoryReservation::getId).toList(), ReservationStatus.RELEASED);
+        Map<Long, Integer> quantities = quantities(rows);
+        TransactionCallbacks.afterCommit(() -> quantities.forEach(this::unhold));
+    }
+
+    private static Map<Long, Integer> quantities(List<InventoryReservation> rows) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        rows.forEach(row -> quantities.merge(row.getProductId(), row.getQuantity(), Integer::sum));
+        return quantities;
+    }
+
+    private boolean tryHold(long productId, int stockQuantity, int quantity) {
+        AtomicInteger counter = held.computeIfAbsent(productId, id -> new AtomicInteger());
+        while (true) {
+            int current = counter.get();
+            if (stockQuantity - current < quantity) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private void unhold(long productId, int quantity) {
+        AtomicInteger counter = held.get(productId);
+        if (counter != null) {
+            counter.addAndGet(-quantity);
+        }
+    }
+
+    private void reindex(Collection<Long> productIds) {
+        // a new persistence context, so the bulk stock decrement is visible instead of the committed transaction's stale entities
+        List<Product> products = freshReadTemplate.execute(status -> productRepository.findAllById(productIds));
+        for (Product product : products) {
+            productVectorIndexer.index(product, false);
+            // only stock moved, so this is not a catalog write and must not bump CatalogVersion
+            catalogFacetIndex.updateStock(product.getId(), product.getStockQuantity());
+        }
+    }
+}
@@ -0,0 +1,705 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-process HNSW vector store. Vectors are L2-normalised and kept in a direct (off-heap) buffer,
+ * so cosine similarity is a plain dot product; graph links and documents stay on the heap.
+ * Deletes and replacements tombstone the old node, which keeps serving as a routing hop until the
+ * tombstoned share of the graph passes the compaction ratio and the live nodes are rebuilt into a
+ * fresh graph. Re-adding a document whose embedded content is unchanged only swaps its metadata.
+ */
+@Slf4j
+public class LocalHnswVectorStore implements VectorStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x534E4256;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int COMPACT_MIN_TOMBSTONES = 64;
+
+    private final EmbeddingModel embeddingModel;
+    private final int maxConnections;
+    private final int maxConnectionsLevel0;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelMultiplier;
+    private final double compactTombstoneRatio;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong modifications = new AtomicLong();
+
+    private final Map<String, Integer> nodesById = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private final List<Map<String, Object>> metadata = new ArrayList<>();
+    private final List<int[][]> links = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+
+    private int dimensions = -1;
+    private FloatBuffer vectors;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public LocalHnswVectorStore(EmbeddingModel embeddingModel, int maxConnections, int efConstruction, int efSearch,
+                                double compactTombstoneRatio) {
+        this.embeddingModel = embeddingModel;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsLevel0 = maxConnections * 2;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.levelMultiplier = 1 / Math.log(maxConnections);
+        this.compactTombstoneRatio = compactTombstoneRatio;
+    }
+
+    @Override
+    public String getName() {
+        return "LocalHnswVectorStore";
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<Document> changed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (Document document : documents) {
+                if (!updateInPlace(document)) {
+                    changed.add(document);
+                }
+            }
+            if (changed.size() < documents.size()) {
+                modifications.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        List<float[]> embeddings = embeddingModel.embed(changed.stream()
+                .map(document -> document.getFormattedContent(MetadataMode.EMBED))
+                .toList());
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < changed.size(); i++) {
+                Document document = changed.get(i);
+                tombstone(document.getId());
+                insert(document.getId(), document.getText(), new HashMap<>(document.getMetadata()), embeddings.get(i).clone());
+            }
+            compactIfNeeded();
+            modifications.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        lock.writeLock().lock();
+        try {
+            idList.forEach(this::tombstone);
+            compactIfNeeded();
+            modifications.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        lock.writeLock().lock();
+        try {
+            for (int node = 0; node < ids.size(); node++) {
+                if (!deleted.get(node) && matches(filterExpression, metadata.get(node))) {
+                    tombstone(ids.get(node));
+                }
+            }
+            compactIfNeeded();
+            modifications.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        float[] query = normalize(embeddingModel.embed(request.getQuery()).clone());
+        Predicate<Map<String, Object>> filter = request.hasFilterExpression()
+                ? values -> matches(request.getFilterExpression(), values)
+                : values -> true;
+
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            checkDimensions(query);
+
+            int current = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                current = greedyClosest(query, current, level);
+            }
+            // a short result only needs a wider search when tombstones or the filter dropped candidates that
+            // cleared the threshold; ef doubles until the graph runs out, then the live nodes are scanned
+            int ef = Math.max(efSearch, request.getTopK());
+            while (true) {
+                PriorityQueue<Candidate> found = searchLayer(query, current, ef, 0);
+                Collected collected = collect(found, filter, request);
+                if (collected.hits().size() >= request.getTopK() || collected.dropped() == 0) {
+                    return collected.hits().stream().map(this::toDocument).toList();
+                }
+                if (found.size() < ef || ef >= ids.size()) {
+                    return exactScan(query, filter, request).stream().map(this::toDocument).toList();
+                }
+                ef = Math.min(ef * 2, ids.size());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Live documents whose metadata matches, read straight from the store: nothing is embedded and no
+     * similarity cut-off applies, so every stored copy is returned whatever its vector.
+     */
+    public List<Document> scan(Predicate<Map<String, Object>> metadataFilter) {
+        lock.readLock().lock();
+        try {
+            List<Document> documents = new ArrayList<>();
+            for (int node : nodesById.values()) {
+                if (metadataFilter.test(metadata.get(node))) {
+                    documents.add(Document.builder()
+                            .id(ids.get(node))
+                            .text(texts.get(node))
+                            .metadata(new HashMap<>(metadata.get(node)))
+                            .build());
+                }
+            }
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Nodes in the graph, tombstoned ones included.
+     */
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long modificationCount() {
+        return modifications.get();
+    }
+
+    public void snapshot(Path path) {
+        lock.readLock().lock();
+        try {
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(dimensions);
+                out.writeInt(ids.size());
+                out.writeInt(entryPoint);
+                out.writeInt(maxLevel);
+                for (int node = 0; node < ids.size(); node++) {
+                    writeString(out, ids.get(node));
+                    out.writeBoolean(deleted.get(node));
+                    for (int i = 0; i < dimensions; i++) {
+                        out.writeFloat(vectors.get(node * dimensions + i));
+                    }
+                    int[][] nodeLinks = links.get(node);
+                    out.writeInt(nodeLinks.length);
+                    for (int[] levelLinks : nodeLinks) {
+                        out.writeInt(levelLinks[0]);
+                        for (int i = 1; i <= levelLinks[0]; i++) {
+                            out.writeInt(levelLinks[i]);
+                        }
+                    }
+                    writeString(out, texts.get(node));
+                    writeString(out, objectMapper.writeValueAsString(metadata.get(node)));
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Local vector index snapshot written to {} ({} live documents)", path, nodesById.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write vector index snapshot " + path, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void restore(Path path) {
+        lock.writeLock().lock();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IllegalStateException("Unsupported vector index snapshot: " + path);
+            }
+            clear();
+            dimensions = in.readInt();
+            int count = in.readInt();
+            entryPoint = in.readInt();
+            maxLevel = in.readInt();
+            if (dimensions > 0) {
+                vectors = allocate(Math.max(INITIAL_CAPACITY, count) * dimensions);
+            }
+
+            for (int node = 0; node < count; node++) {
+                String id = readString(in);
+                boolean tombstoned = in.readBoolean();
+                for (int i = 0; i < dimensions; i++) {
+                    vectors.put(node * dimensions + i, in.readFloat());
+                }
+                int[][] nodeLinks = new int[in.readInt()][];
+                for (int level = 0; level < nodeLinks.length; level++) {
+                    nodeLinks[level] = new int[capacityFor(level) + 1];
+                    nodeLinks[level][0] = in.readInt();
+                    for (int i = 1; i <= nodeLinks[level][0]; i++) {
+                        nodeLinks[level][i] = in.readInt();
+                    }
+                }
+                ids.add(id);
+                links.add(nodeLinks);
+                texts.add(readString(in));
+                metadata.add(objectMapper.readValue(readString(in), new TypeReference<Map<String, Object>>() {
+                }));
+                if (tombstoned) {
+                    deleted.set(node);
+                } else {
+                    nodesById.put(id, node);
+                }
+            }
+            compactIfNeeded();
+            log.info("Local vector index restored from {} ({} live documents)", path, nodesById.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read vector index snapshot " + path, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Swaps text and metadata on the live node of {@code document} when its embedded content, rendered
+     * with the document's own formatter, is what the node was embedded from. Returns false when the
+     * document is new or needs a fresh embedding.
+     */
+    private boolean updateInPlace(Document document) {
+        Integer node = nodesById.get(document.getId());
+        if (node == null) {
+            return false;
+        }
+        Document stored = new Document(document.getId(), texts.get(node), metadata.get(node));
+        stored.setContentFormatter(document.getContentFormatter());
+        if (!stored.getFormattedContent(MetadataMode.EMBED).equals(document.getFormattedContent(MetadataMode.EMBED))) {
+            return false;
+        }
+        texts.set(node, document.getText());
+        metadata.set(node, new HashMap<>(document.getMetadata()));
+        return true;
+    }
+
+    /**
+     * Rebuilds the graph from the live nodes once tombstones make up {@code compactTombstoneRatio} of it,
+     * which also gives their slots in the vector buffer back.
+     */
+    private void compactIfNeeded() {
+        int dead = deleted.cardinality();
+        if (dead < COMPACT_MIN_TOMBSTONES || dead < compactTombstoneRatio * ids.size()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        List<String> oldIds = new ArrayList<>(ids);
+        List<String> oldTexts = new ArrayList<>(texts);
+        List<Map<String, Object>> oldMetadata = new ArrayList<>(metadata);
+        BitSet oldDeleted = (BitSet) deleted.clone();
+        FloatBuffer oldVectors = vectors;
+        int oldDimensions = dimensions;
+        int live = nodesById.size();
+
+        clear();
+        if (live == 0) {
+            log.info("Local vector index compacted away {} tombstoned nodes", dead);
+            return;
+        }
+        dimensions = oldDimensions;
+        vectors = allocate(Math.max(INITIAL_CAPACITY, live) * dimensions);
+        for (int node = oldDeleted.nextClearBit(0); node < oldIds.size(); node = oldDeleted.nextClearBit(node + 1)) {
+            float[] vector = new float[dimensions];
+            oldVectors.get(node * dimensions, vector);
+            insert(oldIds.get(node), oldTexts.get(node), oldMetadata.get(node), vector);
+        }
+        log.info("Local vector index compacted away {} tombstoned nodes, rebuilt {} live nodes in {} ms",
+                dead, live, System.currentTimeMillis() - started);
+    }
+
+    private void insert(String id, String text, Map<String, Object> values, float[] vector) {
+        normalize(vector);
+        if (dimensions < 0) {
+            dimensions = vector.length;
+            vectors = allocate(INITIAL_CAPACITY * dimensions);
+        }
+        checkDimensions(vector);
+
+        int node = ids.size();
+        ensureCapacity(node + 1);
+        for (int i = 0; i < dimensions; i++) {
+            vectors.put(node * dimensions + i, vector[i]);
+        }
+
+        int level = randomLevel();
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[capacityFor(l) + 1];
+        }
+        ids.add(id);
+        texts.add(text);
+        metadata.add(values);
+        links.add(nodeLinks);
+        nodesById.put(id, node);
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> neighbours = sortedDescending(searchLayer(vector, current, efConstruction, l));
+            for (Candidate neighbour : neighbours.subList(0, Math.min(maxConnections, neighbours.size()))) {
+                connect(node, neighbour.node(), l);
+                connect(neighbour.node(), node, l);
+            }
+            current = neighbours.getFirst().node();
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    private void connect(int from, int to, int level) {
+        int[] fromLinks = links.get(from)[level];
+        int count = fromLinks[0];
+        if (count < fromLinks.length - 1) {
+            fromLinks[count + 1] = to;
+            fromLinks[0] = count + 1;
+            return;
+        }
+
+        // list is full: keep the closest neighbours, including the new one if it qualifies
+        int weakest = -1;
+        double weakestScore = similarity(from, to);
+        for (int i = 1; i <= count; i++) {
+            double score = similarity(from, fromLinks[i]);
+            if (score < weakestScore) {
+                weakestScore = score;
+                weakest = i;
+            }
+        }
+        if (weakest > 0) {
+            fromLinks[weakest] = to;
+        }
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        double currentScore = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] currentLinks = links.get(current)[level];
+            for (int i = 1; i <= currentLinks[0]; i++) {
+                double score = similarity(query, currentLinks[i]);
+                if (score > currentScore) {
+                    currentScore = score;
+                    current = currentLinks[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private PriorityQueue<Candidate> searchLayer(float[] query, int entry, int ef, int level) {
+        BitSet visited = new BitSet(ids.size());
+        visited.set(entry);
+        Candidate start = new Candidate(entry, similarity(query, entry));
+
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score).reversed());
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score));
+        frontier.add(start);
+        results.add(start);
+
+        while (!frontier.isEmpty()) {
+            Candidate current = frontier.poll();
+            if (results.size() >= ef && current.score() < results.peek().score()) {
+                break;
+            }
+            int[] currentLinks = links.get(current.node())[level];
+            for (int i = 1; i <= currentLinks[0]; i++) {
+                int neighbour = currentLinks[i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                double score = similarity(query, neighbour);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Candidate candidate = new Candidate(neighbour, score);
+                    frontier.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private Collected collect(PriorityQueue<Candidate> found, Predicate<Map<String, Object>> filter, SearchRequest request) {
+        List<Candidate> hits = new ArrayList<>(request.getTopK());
+        int dropped = 0;
+        for (Candidate candidate : sortedDescending(found)) {
+            if (hits.size() == request.getTopK() || candidate.score() < request.getSimilarityThreshold()) {
+                break;
+            }
+            if (isMatch(candidate, filter, request)) {
+                hits.add(candidate);
+            } else {
+                dropped++;
+            }
+        }
+        return new Collected(hits, dropped);
+    }
+
+    private List<Candidate> exactScan(float[] query, Predicate<Map<String, Object>> filter, SearchRequest request) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (int node : nodesById.values()) {
+            Candidate candidate = new Candidate(node, similarity(query, node));
+            if (isMatch(candidate, filter, request)) {
+                candidates.add(candidate);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        return candidates.subList(0, Math.min(request.getTopK(), candidates.size()));
+    }
+
+    private boolean isMatch(Candidate candidate, Predicate<Map<String, Object>> filter, SearchRequest request) {
+        return !deleted.get(candidate.node())
+                && candidate.score() >= request.getSimilarityThreshold()
+                && filter.test(metadata.get(candidate.node()));
+    }
+
+    private Document toDocument(Candidate candidate) {
+        Map<String, Object> values = new HashMap<>(metadata.get(candidate.node()));
+        values.put("distance", 1 - candidate.score());
+        return Document.builder()
+                .id(ids.get(candidate.node()))
+                .text(texts.get(candidate.node()))
+                .metadata(values)
+                .score(candidate.score())
+                .build();
+    }
+
+    private void tombstone(String id) {
+        Integer node = nodesById.remove(id);
+        if (node != null) {
+            deleted.set(node);
+        }
+    }
+
+    private void clear() {
+        nodesById.clear();
+        ids.clear();
+        texts.clear();
+        metadata.clear();
+        links.clear();
+        deleted.clear();
+        dimensions = -1;
+        vectors = null;
+        entryPoint = -1;
+        maxLevel = -1;
+    }
+
+    private int randomLevel() {
+        return (int) Math.floor(-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * levelMultiplier);
+    }
+
+    private int capacityFor(int level) {
+        return level == 0 ? maxConnectionsLevel0 : maxConnections;
+    }
+
+    private void ensureCapacity(int nodes) {
+        if ((long) nodes * dimensions <= vectors.capacity()) {
+            return;
+        }
+        FloatBuffer grown = allocate(vectors.capacity() * 2);
+        grown.put(0, vectors, 0, vectors.capacity());
+        vectors = grown;
+    }
+
+    private void checkDimensions(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + "-dimensional embedding but got " + vector.length);
+        }
+    }
+
+    private double similarity(float[] query, int node) {
+        int offset = node * dimensions;
+        double dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * vectors.get(offset + i);
+        }
+        return dot;
+    }
+
+    private double similarity(int left, int right) {
+        int leftOffset = left * dimensions;
+        int rightOffset = right * dimensions;
+        double dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += vectors.get(leftOffset + i) * vectors.get(rightOffset + i);
+        }
+        return dot;
+    }
+
+    private static List<Candidate> sortedDescending(PriorityQueue<Candidate> candidates) {
+        List<Candidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        return sorted;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        if (norm > 0) {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) (vector[i] / norm);
+            }
+        }
+        return vector;
+    }
+
+    private static FloatBuffer allocate(int floats) {
+        return ByteBuffer.allocateDirect(floats * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = Objects.requireNonNullElse(value, "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+    }
+
+    static boolean matches(Filter.Operand operand, Map<String, Object> values) {
+        if (operand instanceof Filter.Group group) {
+            return matches(group.content(), values);
+        }
+        Filter.Expression expression = (Filter.Expression) operand;
+        return switch (expression.type()) {
+            case AND -> matches(expression.left(), values) && matches(expression.right(), values);
+            case OR -> matches(expression.left(), values) || matches(expression.right(), values);
+            case NOT -> !matches(expression.left(), values);
+            case EQ -> compare(actual(expression, values), expected(expression)) == 0;
+            case NE -> compare(actual(expression, values), expected(expression)) != 0;
+            case GT -> compare(actual(expression, values), expected(expression)) > 0;
+            case GTE -> compare(actual(expression, values), expected(expression)) >= 0;
+            case LT -> compare(actual(expression, values), expected(expression)) < 0;
+            case LTE -> compare(actual(expression, values), expected(expression)) <= 0;
+            case IN -> ((List<?>) expected(expression)).stream().anyMatch(v -> compare(actual(expression, values), v) == 0);
+            case NIN -> ((List<?>) expected(expression)).stream().noneMatch(v -> compare(actual(expression, values), v) == 0);
+            default -> throw new UnsupportedOperationException("Unsupported filter operation: " + expression.type());
+        };
+    }
+
+    private static Object actual(Filter.Expression expression, Map<String, Object> values) {
+        return values.get(((Filter.Key) expression.left()).key());
+    }
+
+    private static Object expected(Filter.Expression expression) {
+        return ((Filter.Value) expression.right()).value();
+    }
+
+    private static int compare(Object actual, Object expected) {
+        if (actual == null || expected == null) {
+            return actual == expected ? 0 : -1;
+        }
+        if (actual instanceof Number a && expected instanceof Number e) {
+            return Double.compare(a.doubleValue(), e.doubleValue());
+        }
+        return String.valueOf(actual).compareTo(String.valueOf(expected));
+    }
+
+    private record Collected(List<Candidate> hits, int dropped) {
+    }
+
+    private record Candidate(int node, double score) {
+    }
+}
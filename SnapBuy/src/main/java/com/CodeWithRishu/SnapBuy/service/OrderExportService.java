@@ -0,0 +1,123 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderExportRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Streams order lines as CSV through a forward-only cursor. The query is a DTO projection, so nothing
+ * collects in the persistence context, and it alone asks Connector/J to stream its result set row by
+ * row, keeping memory flat however many orders match without changing how any other statement runs.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    // with a forward-only, read-only statement this is Connector/J's signal to stream instead of buffering
+    private static final int STREAM_ROWS = Integer.MIN_VALUE;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public OrderExportService(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Writes the lines of orders dated {@code from} to {@code to} inclusive, either bound optional, and
+     * in one of {@code statuses} when given, in order id order.
+     */
+    public void export(OutputStream out, LocalDate from, LocalDate to, Collection<OrderStatus> statuses) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CsvSupport.writeRecord(writer, OrderExportRow.COLUMNS);
+
+        Long exported;
+        try {
+            exported = readOnlyTransaction.execute(status -> writeRows(writer, from, to, statuses));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} order lines (from {}, to {}, statuses {})", exported, from, to, statuses);
+    }
+
+    private long writeRows(Writer writer, LocalDate from, LocalDate to, Collection<OrderStatus> statuses) {
+        StringBuilder hql = new StringBuilder("SELECT new com.CodeWithRishu.SnapBuy.dto.OrderExportRow(o.orderId, o.orderDate, " +
+                "o.createdAt, o.status, o.customerName, o.email, p.id, i.productName, i.quantity, i.totalPrice) " +
+                "FROM OrderItem i JOIN i.order o LEFT JOIN i.product p WHERE 1 = 1");
+        if (from != null) {
+            hql.append(" AND o.orderDate >= :from");
+        }
+        if (to != null) {
+            hql.append(" AND o.orderDate <= :to");
+        }
+        boolean byStatus = statuses != null && !statuses.isEmpty();
+        if (byStatus) {
+            hql.append(" AND o.status IN :statuses");
+        }
+        hql.append(" ORDER BY o.id, i.id");
+
+        SelectionQuery<OrderExportRow> query = entityManager.unwrap(Session.class)
+                .createSelectionQuery(hql.toString(), OrderExportRow.class)
+                .setFetchSize(STREAM_ROWS)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE);
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (byStatus) {
+            query.setParameterList("statuses", statuses);
+        }
+
+        // nothing else may run on the connection until the streamed result is fully read or closed
+        long exported = 0;
+        try (ScrollableResults<OrderExportRow> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                CsvSupport.writeRecord(writer, toCsv(rows.get()));
+                exported++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return exported;
+    }
+
+    private static String[] toCsv(OrderExportRow row) {
+        return new String[]{
+                row.orderId(),
+                row.orderDate() != null ? row.orderDate().toString() : null,
+                row.placedAt() != null ? row.placedAt().toString() : null,
+                row.status() != null ? row.status().name() : null,
+                row.customerName(),
+                row.email(),
+                row.productId() != null ? row.productId().toString() : null,
+                row.productName(),
+                String.valueOf(row.quantity()),
+                row.lineTotal() != null ? row.lineTotal().toPlainString() : null
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order ids: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id and a
+ * 12-bit per-millisecond sequence, rendered as 13 fixed-width Crockford base32 characters after the
+ * {@code ORD} prefix. Ids from one node are unique and strictly increasing, so they sort by creation
+ * time and insert at the right edge of the unique orderId index.
+ */
+@Service
+public class OrderIdGenerator {
+
+    static final String PREFIX = "ORD";
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeBits;
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    public OrderIdGenerator(@Value("${order.id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order.id.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+    }
+
+    public String nextId() {
+        long state = nextState();
+        long millis = state >>> SEQUENCE_BITS;
+        long id = (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (state & SEQUENCE_MASK);
+        return encode(id);
+    }
+
+    /**
+     * Lock-free: the timestamp and sequence advance together in one CAS. When the clock steps back or
+     * a millisecond runs out of sequence numbers the state keeps counting past the wall clock, which
+     * keeps ids monotonic at the cost of briefly running ahead of real time.
+     */
+    private long nextState() {
+        while (true) {
+            long last = lastState.get();
+            long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+            long next = Math.max(now, last + 1);
+            if (lastState.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = CROCKFORD[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -9,6 +9,8 @@ import com.CodeWithRishu.SnapBuy.entity.Order;
 import com.CodeWithRishu.SnapBuy.entity.OrderItem;
 import com.CodeWithRishu.SnapBuy.entity.Product;
 import com.CodeWithRishu.SnapBuy.entity.User;
+import com.CodeWithRishu.SnapBuy.event.OrderPlacedEvent;
+import com.CodeWithRishu.SnapBuy.exception.ResourceNotFoundException;
 import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
 import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
 import com.CodeWithRishu.SnapBuy.repository.UserRepository;
@@ -16,17 +18,20 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
-import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,8 +40,11 @@ public class OrderService {
 
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
-    private final VectorStore vectorStore;
+    private final VectorIndexingPipeline vectorIndexingPipeline;
     private final UserRepository userRepository;
+    private final InventoryReservationService inventoryReservationService;
+    private final OrderIdGenerator orderIdGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     @CacheEvict(value = "allOrders", allEntries = true)
@@ -46,7 +54,7 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Authenticated user not found in database: "));
 
         Order order = new Order();
-        String orderId = "ORD" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String orderId = orderIdGenerator.nextId();
 
         order.setOrderId(orderId);
         order.setCustomerName(request.customerName());
@@ -55,52 +63,24 @@ public class OrderService {
         order.setOrderDate(LocalDate.now());
         order.setUser(user);
 
-        final Long productId = request.items().getFirst().productId();
-        Product product = productRepository.findById(productId).orElseThrow();
-
-        String filter = String.format("productId == %s", String.valueOf(product.getId()));
-        vectorStore.delete(filter);
-
-        String updatedContent = String.format("""
-                        
-                        Product Name: %s
-                        Description: %s
-                        Brand: %s
-                        Category: %s
-                        Price: %.2f
-                        Release Date: %s
-                        Available: %s
-                        Stock: %s
-                        """,
-                product.getName(),
-                product.getDescription(),
-                product.getBrand(),
-                product.getCategory(),
-                product.getPrice(),
-                product.getReleaseDate(),
-                product.isProductAvailable(),
-                product.getStockQuantity()
-        );
-
-        Document updatedDoc = new Document(
-                UUID.randomUUID().toString(),
-                updatedContent,
-                Map.of("productId", String.valueOf(product.getId()))
-        );
-
-        vectorStore.add(List.of(updatedDoc));
+        Map<Long, Product> products = productRepository.findAllById(
+                        request.items().stream().map(OrderItemRequest::productId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
 
         List<OrderItem> orderItems = new ArrayList<>();
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (OrderItemRequest itemReq : request.items()) {
+            Product product = products.get(itemReq.productId());
+            if (product == null)
+                throw new ResourceNotFoundException("Product not found: " + itemReq.productId());
 
-            if (product.getStockQuantity() < itemReq.quantity())
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
-
-            product.setStockQuantity(product.getStockQuantity() - itemReq.quantity());
+            quantities.merge(product.getId(), itemReq.quantity(), Integer::sum);
 
             OrderItem orderItem = OrderItem.builder()
                     .product(product)
                     .productName(product.getName())
+                    .category(product.getCategory())
                     .quantity(itemReq.quantity())
                     .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(itemReq.quantity())))
                     .order(order)
@@ -112,6 +92,16 @@ public class OrderService {
 
         Order savedOrder = orderRepository.save(order);
 
+        // card payments keep the stock on hold until Stripe confirms; other orders are sold right away
+        inventoryReservationService.reserve(orderId, quantities, products);
+        if (!"STRIPE".equalsIgnoreCase(request.paymentMethod())) {
+            inventoryReservationService.convertToSale(List.of(orderId));
+        }
+        // feeds the popularity counters once the order has committed
+        eventPublisher.publishEvent(new OrderPlacedEvent(orderId, quantities.entrySet().stream()
+                .map(entry -> new OrderPlacedEvent.Line(entry.getKey(), products.get(entry.getKey()).getCategory(), entry.getValue()))
+                .toList(), Instant.now()));
+
         StringBuilder content = new StringBuilder();
         content.append("Order Summary: \n");
         content.append("Order  ID: ").append(savedOrder.getOrderId()).append("\n");
@@ -127,13 +117,11 @@ public class OrderService {
                     .append(" = ").append(orderItem.getTotalPrice()).append("\n");
         }
 
-        Document document = new Document(
-                UUID.randomUUID().toString(),
+        vectorIndexingPipeline.upsert(new Document(
+                savedOrder.getOrderId(),
                 content.toString(),
                 Map.of("orderId", savedOrder.getOrderId())
-        );
-
-        vectorStore.add(List.of(document));
+        ));
 
         List<OrderItemResponse> itemResponses = savedOrder.getOrderItems().stream()
                 .map(item -> new OrderItemResponse(
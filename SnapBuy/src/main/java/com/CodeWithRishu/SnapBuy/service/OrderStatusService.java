@@ -0,0 +1,94 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatusRow;
+import com.CodeWithRishu.SnapBuy.dto.response.OrderStatusUpdateResponse;
+import com.CodeWithRishu.SnapBuy.event.OrderStatusChangedEvent;
+import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Applies validated status transitions in chunks. Each chunk locks its rows in order id order,
+ * checks them against the {@link OrderStatus} transition table and moves the valid ones with one UPDATE.
+ */
+@Service
+@Slf4j
+public class OrderStatusService {
+
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public OrderStatusService(OrderRepository orderRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${order.status.bulk-chunk-size:500}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @CacheEvict(value = "allOrders", allEntries = true)
+    public OrderStatusUpdateResponse transition(Collection<String> orderIds, OrderStatus target) {
+        List<String> sortedIds = new ArrayList<>(new TreeSet<>(orderIds));
+        List<OrderStatusUpdateResponse.Failure> failures = new ArrayList<>();
+        int updated = 0;
+
+        for (int from = 0; from < sortedIds.size(); from += chunkSize) {
+            List<String> chunk = sortedIds.subList(from, Math.min(from + chunkSize, sortedIds.size()));
+            Integer chunkUpdated = transactionTemplate.execute(status -> applyChunk(chunk, target, failures));
+            updated += chunkUpdated != null ? chunkUpdated : 0;
+        }
+
+        log.info("Moved {} of {} orders to {}, {} rejected", updated, sortedIds.size(), target, failures.size());
+        return new OrderStatusUpdateResponse(target, sortedIds.size(), updated, failures);
+    }
+
+    private int applyChunk(List<String> chunk, OrderStatus target, List<OrderStatusUpdateResponse.Failure> failures) {
+        Map<String, OrderStatus> current = new HashMap<>();
+        orderRepository.lockStatuses(chunk).forEach(row -> current.put(row.orderId(), row.status()));
+
+        List<OrderStatusRow> valid = new ArrayList<>(chunk.size());
+        for (String orderId : chunk) {
+            OrderStatus status = current.get(orderId);
+            if (!current.containsKey(orderId)) {
+                failures.add(new OrderStatusUpdateResponse.Failure(orderId, null, "Order not found"));
+            } else if (status == null) {
+                failures.add(new OrderStatusUpdateResponse.Failure(orderId, null, "Order has no status"));
+            } else if (status == target) {
+                failures.add(new OrderStatusUpdateResponse.Failure(orderId, status, "Order is already " + target));
+            } else if (!status.canTransitionTo(target)) {
+                failures.add(new OrderStatusUpdateResponse.Failure(orderId, status, "Cannot move from " + status + " to " + target));
+            } else {
+                valid.add(new OrderStatusRow(orderId, status));
+            }
+        }
+        if (valid.isEmpty()) {
+            return 0;
+        }
+
+        int updated = orderRepository.updateStatusForOrders(
+                valid.stream().map(OrderStatusRow::orderId).toList(), OrderStatus.sourcesOf(target), target);
+
+        Instant changedAt = Instant.now();
+        valid.forEach(row -> eventPublisher.publishEvent(
+                new OrderStatusChangedEvent(row.orderId(), row.status(), target, changedAt)));
+        return updated;
+    }
+}
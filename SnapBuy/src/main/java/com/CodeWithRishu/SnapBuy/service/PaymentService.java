@@ -1,69 +1,236 @@
 package com.CodeWithRishu.SnapBuy.service;
 
+import com.CodeWithRishu.SnapBuy.dto.CheckoutLineRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
 import com.CodeWithRishu.SnapBuy.dto.request.StripeRequest;
 import com.CodeWithRishu.SnapBuy.dto.response.StripeResponse;
+import com.CodeWithRishu.SnapBuy.exception.ResourceNotFoundException;
+import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
 import com.stripe.exception.StripeException;
+import com.stripe.model.Refund;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.RefundCreateParams;
 import com.stripe.param.checkout.SessionCreateParams;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 public class PaymentService {
 
+    // Stripe keeps idempotency keys for 24 hours; replaying from memory beyond that would diverge
+    private static final Duration SESSION_REPLAY_WINDOW = Duration.ofHours(23);
+    // Stripe rejects sessions that expire sooner than 30 minutes after creation
+    private static final Duration MIN_SESSION_LIFETIME = Duration.ofMinutes(31);
+    private static final Duration HOLD_GRACE = Duration.ofMinutes(1);
+    private static final Set<OrderStatus> PAYABLE_STATUSES = Set.of(OrderStatus.PLACED, OrderStatus.PENDING);
+
     private final String stripeSuccessUrl;
     private final String stripeCancelUrl;
+    private final String currency;
+    private final int minorUnitDigits;
+    private final OrderRepository orderRepository;
+    private final ThreadPoolExecutor stripeExecutor;
+    private final Duration holdTtl;
+    private final Duration checkoutWindow;
+    private final Map<String, CachedSession> sessions = new ConcurrentHashMap<>();
 
     public PaymentService(@Value("${stripe.success.url}") String stripeSuccessUrl,
-                          @Value("${stripe.cancel.url}") String stripeCancelUrl) {
+                          @Value("${stripe.cancel.url}") String stripeCancelUrl,
+                          @Value("${stripe.currency:inr}") String currency,
+                          @Value("${stripe.max-concurrency:8}") int maxConcurrency,
+                          @Value("${stripe.queue-capacity:100}") int queueCapacity,
+                          @Value("${inventory.hold-ttl-minutes:75}") long holdTtlMinutes,
+                          OrderRepository orderRepository) {
         this.stripeSuccessUrl = stripeSuccessUrl;
         this.stripeCancelUrl = stripeCancelUrl;
+        this.currency = currency.toLowerCase(Locale.ROOT);
+        this.minorUnitDigits = minorUnitDigits(currency);
+        this.orderRepository = orderRepository;
+        this.holdTtl = Duration.ofMinutes(holdTtlMinutes);
+        // a session opened at the last moment still has to outlive Stripe's minimum and end before the hold
+        this.checkoutWindow = holdTtl.minus(HOLD_GRACE).minus(MIN_SESSION_LIFETIME);
+        if (checkoutWindow.isNegative() || checkoutWindow.isZero()) {
+            throw new IllegalArgumentException("inventory.hold-ttl-minutes must exceed "
+                    + MIN_SESSION_LIFETIME.plus(HOLD_GRACE).toMinutes() + " to leave any time to start a checkout");
+        }
+        this.stripeExecutor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> new Thread(r, "stripe-session"), new ThreadPoolExecutor.AbortPolicy());
     }
 
-    public StripeResponse createOrderByStripe(StripeRequest stripeRequest) throws StripeException {
-        log.info("Creating Stripe session with amount: {} and currency: {}", stripeRequest.amount(), stripeRequest.currency());
-
-        SessionCreateParams.LineItem.PriceData.ProductData productData =
-                SessionCreateParams.LineItem.PriceData.ProductData.builder()
-                        .setName(stripeRequest.productName())
-                        .build();
-
-        SessionCreateParams.LineItem.PriceData priceData =
-                SessionCreateParams.LineItem.PriceData.builder()
-                        .setCurrency(stripeRequest.currency() != null ? stripeRequest.currency() : "USD")
-                        .setUnitAmount(stripeRequest.amount())
-                        .setProductData(productData)
-                        .build();
-
-        SessionCreateParams.LineItem lineItem =
-                SessionCreateParams.LineItem.builder()
-                        .setQuantity(stripeRequest.quantity())
-                        .setPriceData(priceData)
-                        .build();
-
-        SessionCreateParams params =
-                SessionCreateParams.builder()
-                        .setMode(SessionCreateParams.Mode.PAYMENT)
-                        .setSuccessUrl(stripeSuccessUrl)
-                        .setCancelUrl(stripeCancelUrl)
-                        .addLineItem(lineItem)
-                        .build();
+    public CompletableFuture<StripeResponse> createOrderByStripe(StripeRequest stripeRequest, String customerEmail) {
+        String orderId = stripeRequest.orderId();
+
+        CachedSession cached = sessions.get(orderId);
+        if (cached != null && cached.isReusable() && cached.email().equalsIgnoreCase(customerEmail)) {
+            log.info("Replaying Stripe session for order {}", orderId);
+            return cached.response();
+        }
+
+        List<CheckoutLineRow> lines = orderRepository.findCheckoutLines(orderId);
+        if (lines.isEmpty() || !lines.getFirst().email().equalsIgnoreCase(customerEmail)) {
+            throw new ResourceNotFoundException("Order not found: " + orderId);
+        }
+        if (!PAYABLE_STATUSES.contains(lines.getFirst().status())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Order " + orderId + " is not awaiting payment");
+        }
+
+        // derived from the order so retries send identical parameters under the same idempotency key,
+        // and a minute before the stock hold lapses so an expired session is never paid for released stock
+        Instant placedAt = lines.getFirst().createdAt();
+        Instant sessionExpiry = placedAt.plus(holdTtl).minus(HOLD_GRACE);
+        Instant checkoutClosesAt = placedAt.plus(checkoutWindow);
+        if (Instant.now().isAfter(checkoutClosesAt)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Payment window for order " + orderId + " closed at " + checkoutClosesAt);
+        }
+
+        return sessions.compute(orderId, (key, existing) ->
+                existing != null && existing.isReusable() ? existing : new CachedSession(
+                        lines.getFirst().email(),
+                        CompletableFuture.supplyAsync(() -> createSession(orderId, lines, sessionExpiry), stripeExecutor),
+                        Instant.now())
+        ).response();
+    }
+
+    /**
+     * Refunds the payment captured by a checkout session in full. Keyed on the session id, so repeated
+     * calls for the same session return Stripe's first refund instead of issuing another.
+     */
+    public void refundSession(String orderId, String sessionId) throws StripeException {
+        Session session = Session.retrieve(sessionId);
+        if (session.getPaymentIntent() == null) {
+            log.warn("Stripe session {} for order {} has no payment to refund", sessionId, orderId);
+            return;
+        }
+        RequestOptions requestOptions = RequestOptions.builder()
+                .setIdempotencyKey("refund-" + sessionId)
+                .build();
+        Refund refund = Refund.create(RefundCreateParams.builder()
+                .setPaymentIntent(session.getPaymentIntent())
+                .putMetadata("orderId", orderId)
+                .build(), requestOptions);
+        log.info("Refunded Stripe session {} for order {}: {}", sessionId, orderId, refund.getId());
+    }
+
+    @Scheduled(fixedDelayString = "${stripe.session-cache-cleanup-ms:600000}")
+    public void evictExpiredSessions() {
+        sessions.values().removeIf(cached -> !cached.isReusable());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stripeExecutor.shutdown();
+    }
+
+    private CreatedSession createSession(String orderId, List<CheckoutLineRow> lines, Instant sessionExpiry) {
+        log.info("Creating Stripe session for order {} with {} line items", orderId, lines.size());
+
+        SessionCreateParams.Builder params = SessionCreateParams.builder()
+                .setMode(SessionCreateParams.Mode.PAYMENT)
+                .setSuccessUrl(stripeSuccessUrl)
+                .setCancelUrl(stripeCancelUrl)
+                .setClientReferenceId(orderId)
+                .setExpiresAt(sessionExpiry.getEpochSecond())
+                .putMetadata("orderId", orderId);
+
+        for (CheckoutLineRow line : lines) {
+            params.addLineItem(SessionCreateParams.LineItem.builder()
+                    .setQuantity((long) line.quantity())
+                    .setPriceData(SessionCreateParams.LineItem.PriceData.builder()
+                            .setCurrency(currency)
+                            .setUnitAmount(unitAmountInMinorUnits(line))
+                            .setProductData(SessionCreateParams.LineItem.PriceData.ProductData.builder()
+                                    .setName(line.productName())
+                                    .build())
+                            .build())
+                    .build());
+        }
+
+        RequestOptions requestOptions = RequestOptions.builder()
+                .setIdempotencyKey("checkout-" + orderId)
+                .build();
 
         try {
-            Session session = Session.create(params);
+            Session session = Session.create(params.build(), requestOptions);
+            orderRepository.updatePaymentSessionId(orderId, session.getId());
             log.info("Stripe session created successfully: {}", session.getId());
-            return StripeResponse.builder()
+            StripeResponse response = StripeResponse.builder()
                     .status("SUCCESS")
                     .message("Payment session created")
                     .sessionId(session.getId())
                     .sessionUrl(session.getUrl())
                     .build();
+            Instant expiresAt = session.getExpiresAt() != null
+                    ? Instant.ofEpochSecond(session.getExpiresAt())
+                    : Instant.now().plus(SESSION_REPLAY_WINDOW);
+            return new CreatedSession(response, expiresAt);
         } catch (StripeException e) {
             log.error("Error creating Stripe session: {}", e.getMessage(), e);
-            throw e;
+            throw new CompletionException(e);
+        }
+    }
+
+    private long unitAmountInMinorUnits(CheckoutLineRow line) {
+        // totalPrice is price * quantity, so dividing back yields the catalog unit price; Stripe wants
+        // three-decimal amounts rounded to a multiple of ten, hence at most two decimals before the shift
+        return line.totalPrice()
+                .divide(BigDecimal.valueOf(line.quantity()), Math.min(minorUnitDigits, 2), RoundingMode.HALF_UP)
+                .movePointRight(minorUnitDigits)
+                .longValueExact();
+    }
+
+    static int minorUnitDigits(String currency) {
+        String code = currency.toUpperCase(Locale.ROOT);
+        // ISO 4217 gives ISK no minor unit but Stripe still takes it in two-decimal form
+        if ("ISK".equals(code)) {
+            return 2;
+        }
+        int digits = Currency.getInstance(code).getDefaultFractionDigits();
+        if (digits < 0) {
+            throw new IllegalArgumentException("Currency " + code + " cannot be used for payments");
         }
+        return digits;
     }
 
-}
\ No newline at end of file
+    private record CreatedSession(StripeResponse response, Instant expiresAt) {
+    }
+
+    private record CachedSession(String email, CompletableFuture<CreatedSession> future, Instant requestedAt) {
+
+        CompletableFuture<StripeResponse> response() {
+            return future.thenApply(CreatedSession::response);
+        }
+
+        boolean isReusable() {
+            Instant now = Instant.now();
+            if (future.isCompletedExceptionally() || now.isAfter(requestedAt.plus(SESSION_REPLAY_WINDOW))) {
+                return false;
+            }
+            // cached for the session's lifetime once Stripe reports when it expires
+            return !future.isDone() || now.isBefore(future.join().expiresAt());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.response.OrderStatusUpdateResponse;
+import com.CodeWithRishu.SnapBuy.entity.PaymentEvent;
+import com.CodeWithRishu.SnapBuy.repository.PaymentEventRepository;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.Event;
+import com.stripe.model.StripeObject;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.Webhook;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class PaymentWebhookService {
+
+    private static final Map<String, OrderStatus> STATUS_BY_EVENT_TYPE = Map.of(
+            "checkout.session.completed", OrderStatus.CONFIRMED,
+            "checkout.session.async_payment_succeeded", OrderStatus.CONFIRMED,
+            "checkout.session.async_payment_failed", OrderStatus.CANCELLED,
+            "checkout.session.expired", OrderStatus.CANCELLED);
+
+    private final PaymentEventRepository paymentEventRepository;
+    private final OrderStatusService orderStatusService;
+    private final PaymentService paymentService;
+    private final String webhookSecret;
+    private final int batchSize;
+    private final Duration retention;
+
+    public PaymentWebhookService(PaymentEventRepository paymentEventRepository,
+                                 OrderStatusService orderStatusService,
+                                 PaymentService paymentService,
+                                 @Value("${stripe.webhook.secret}") String webhookSecret,
+                                 @Value("${stripe.webhook.batch-size:200}") int batchSize,
+                                 @Value("${stripe.webhook.retention-days:30}") int retentionDays) {
+        this.paymentEventRepository = paymentEventRepository;
+        this.orderStatusService = orderStatusService;
+        this.paymentService = paymentService;
+        this.webhookSecret = webhookSecret;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * Verifies and appends the event to the inbox. Order rows are not touched here;
+     * {@link #processInbox()} applies the status changes in batches through {@link OrderStatusService}.
+     */
+    public void ingest(String payload, String signature) throws SignatureVerificationException {
+        Event event = Webhook.constructEvent(payload, signature, webhookSecret);
+        if (!STATUS_BY_EVENT_TYPE.containsKey(event.getType())) {
+            log.debug("Ignoring Stripe event {} of type {}", event.getId(), event.getType());
+            return;
+        }
+
+        Session session = extractSession(event);
+        if (session != null && "checkout.session.completed".equals(event.getType()) && "unpaid".equals(session.getPaymentStatus())) {
+            // delayed payment methods confirm later through async_payment_succeeded
+            return;
+        }
+        PaymentEvent paymentEvent = PaymentEvent.builder()
+                .eventId(event.getId())
+                .type(event.getType())
+                .orderId(session != null ? orderIdOf(session) : null)
+                .sessionId(session != null ? session.getId() : null)
+                .receivedAt(Instant.now())
+                .build();
+        try {
+            paymentEventRepository.save(paymentEvent);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Duplicate Stripe event {} acknowledged", event.getId());
+        }
+    }
+
+    /**
+     * Applies the pending events, latest per order. An event whose transition is rejected is still taken out
+     * of the inbox, but with the rejection stored as its failure reason and kept past the retention purge;
+     * a payment that lands on an order that was already cancelled is refunded once the batch commits.
+     */
+    @Scheduled(fixedDelayString = "${stripe.webhook.poll-ms:1000}")
+    @Transactional
+    public void processInbox() {
+        List<PaymentEvent> events = paymentEventRepository.findUnprocessed(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return;
+        }
+
+        // events arrive in id order, so the latest event per order wins
+        Map<String, OrderStatus> targetByOrder = new LinkedHashMap<>();
+        Map<String, List<PaymentEvent>> eventsByOrder = new HashMap<>();
+        List<Long> eventIds = new ArrayList<>(events.size());
+        for (PaymentEvent event : events) {
+            if (event.getOrderId() != null) {
+                targetByOrder.put(event.getOrderId(), STATUS_BY_EVENT_TYPE.get(event.getType()));
+                eventsByOrder.computeIfAbsent(event.getOrderId(), id -> new ArrayList<>()).add(event);
+            } else {
+                eventIds.add(event.getId());
+            }
+        }
+
+        Map<OrderStatus, List<String>> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        targetByOrder.forEach((orderId, status) -> ordersByStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(orderId));
+
+        int updated = 0;
+        Map<String, List<Long>> failedIdsByReason = new HashMap<>();
+        for (Map.Entry<OrderStatus, List<String>> entry : ordersByStatus.entrySet()) {
+            OrderStatusUpdateResponse result = orderStatusService.transition(entry.getValue(), entry.getKey());
+            updated += result.updated();
+            for (OrderStatusUpdateResponse.Failure failure : result.failures()) {
+                // a redelivery for a transition that already happened is not a failure
+                if (failure.currentStatus() == entry.getKey()) {
+                    continue;
+                }
+                List<PaymentEvent> orderEvents = eventsByOrder.remove(failure.orderId());
+                log.warn("Payment event for order {} not applied: {}", failure.orderId(), failure.reason());
+                failedIdsByReason.computeIfAbsent(failure.reason(), r -> new ArrayList<>())
+                        .addAll(orderEvents.stream().map(PaymentEvent::getId).toList());
+                if (entry.getKey() == OrderStatus.CONFIRMED && failure.currentStatus() == OrderStatus.CANCELLED) {
+                    refundAfterCommit(failure.orderId(), orderEvents.getLast().getSessionId());
+                }
+            }
+        }
+        eventsByOrder.values().forEach(orderEvents -> orderEvents.forEach(event -> eventIds.add(event.getId())));
+
+        Instant processedAt = Instant.now();
+        if (!eventIds.isEmpty()) {
+            paymentEventRepository.markProcessed(eventIds, processedAt);
+        }
+        failedIdsByReason.forEach((reason, ids) -> paymentEventRepository.markFailed(ids, reason, processedAt));
+        log.info("Processed {} payment events, updated {} orders, {} events rejected", events.size(), updated,
+                failedIdsByReason.values().stream().mapToInt(List::size).sum());
+    }
+
+    @Scheduled(cron = "${stripe.webhook.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeProcessedEvents() {
+        int count = paymentEventRepository.deleteProcessedBefore(Instant.now().minus(retention));
+        if (count > 0) {
+            log.info("Purged {} processed payment events", count);
+        }
+    }
+
+    private void refundAfterCommit(String orderId, String sessionId) {
+        log.error("Order {} was paid after it had been cancelled, refunding session {}", orderId, sessionId);
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                paymentService.refundSession(orderId, sessionId);
+            } catch (StripeException e) {
+                log.error("Refund for cancelled order {} (session {}) failed, refund it manually: {}",
+                        orderId, sessionId, e.getMessage(), e);
+            }
+        });
+    }
+
+    private Session extractSession(Event event) {
+        // fall back to unsafe deserialization when the event API version differs from the library's
+        StripeObject object = event.getDataObjectDeserializer().getObject().orElseGet(() -> {
+            try {
+                return event.getDataObjectDeserializer().deserializeUnsafe();
+            } catch (Exception e) {
+                log.warn("Could not deserialize Stripe event {}: {}", event.getId(), e.getMessage());
+                return null;
+            }
+        });
+        return object instanceof Session session ? session : null;
+    }
+
+    private String orderIdOf(Session session) {
+        if (session.getClientReferenceId() != null) {
+            return session.getClientReferenceId();
+        }
+        return session.getMetadata() != null ? session.getMetadata().get("orderId") : null;
+    }
+}
@@ -0,0 +1,197 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.util.Native;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response bodies of cacheable GETs together with their gzip, Brotli and zstd encodings, keyed by a
+ * resource key and the version of the data behind it. Every encoding is produced once when a new version
+ * is first requested, so compression costs CPU once per content change rather than once per request.
+ * Encodings whose native codec cannot be loaded on this platform are simply never offered.
+ */
+@Service
+@Slf4j
+public class PrecompressedResponseCache {
+
+    /**
+     * Declaration order is the preference when the client accepts several encodings equally.
+     */
+    public enum Encoding {
+        BROTLI("br"),
+        ZSTD("zstd"),
+        GZIP("gzip");
+
+        private final String token;
+
+        Encoding(String token) {
+            this.token = token;
+        }
+
+        public String token() {
+            return token;
+        }
+    }
+
+    /**
+     * The body to send and its Content-Encoding, null when it goes out uncompressed.
+     */
+    public record Variant(byte[] body, String contentEncoding) {
+    }
+
+    private record Entry(long version, byte[] identity, Map<Encoding, byte[]> encoded) {
+        long bytes() {
+            return identity.length + encoded.values().stream().mapToLong(body -> body.length).sum();
+        }
+    }
+
+    private final int minSize;
+    private final int gzipLevel;
+    private final int brotliQuality;
+    private final int zstdLevel;
+    private final Set<Encoding> available;
+    private final ByteBoundedCache<Entry> entries;
+
+    public PrecompressedResponseCache(@Value("${response-cache.max-bytes:67108864}") long maxBytes,
+                                      @Value("${response-cache.min-size:1024}") int minSize,
+                                      @Value("${response-cache.gzip-level:9}") int gzipLevel,
+                                      @Value("${response-cache.brotli-quality:9}") int brotliQuality,
+                                      @Value("${response-cache.zstd-level:12}") int zstdLevel) {
+        this.minSize = minSize;
+        this.gzipLevel = gzipLevel;
+        this.brotliQuality = brotliQuality;
+        this.zstdLevel = zstdLevel;
+        // a slow render of an older version must not replace a newer one
+        this.entries = new ByteBoundedCache<>(maxBytes, Entry::bytes,
+                (entry, previous) -> entry.version() >= previous.version());
+        this.available = loadCodecs();
+        log.info("Precompressed responses available as {}", available);
+    }
+
+    /**
+     * The cached body of {@code key} at {@code version} in the best encoding the client accepts, rendering
+     * and compressing it first if this version has not been seen yet. One thread renders a given key,
+     * concurrent requests for it wait for that result instead of repeating the work.
+     */
+    public Variant get(String key, long version, String acceptEncoding, Supplier<byte[]> body) {
+        Entry entry = entries.getOrLoad(key, cached -> cached.version() == version,
+                () -> compress(version, body.get()));
+        Encoding encoding = negotiate(acceptEncoding, entry.encoded().keySet());
+        return encoding == null
+                ? new Variant(entry.identity(), null)
+                : new Variant(entry.encoded().get(encoding), encoding.token());
+    }
+
+    private Entry compress(long version, byte[] identity) {
+        Map<Encoding, byte[]> encoded = new EnumMap<>(Encoding.class);
+        if (identity.length >= minSize) {
+            for (Encoding encoding : available) {
+                byte[] compressed = encode(encoding, identity);
+                // not worth a Content-Encoding if it does not shrink the body
+                if (compressed.length < identity.length) {
+                    encoded.put(encoding, compressed);
+                }
+            }
+        }
+        return new Entry(version, identity, encoded);
+    }
+
+    private byte[] encode(Encoding encoding, byte[] identity) {
+        try {
+            return switch (encoding) {
+                case GZIP -> gzip(identity, gzipLevel);
+                case BROTLI -> Encoder.compress(identity, new Encoder.Parameters().setQuality(brotliQuality));
+                case ZSTD -> Zstd.compress(identity, zstdLevel);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not " + encoding.token() + "-encode response", e);
+        }
+    }
+
+    static byte[] gzip(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream stream = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            stream.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Picks the offered encoding with the highest q-value, honouring {@code q=0} and {@code *}. Returns
+     * null for identity.
+     */
+    static Encoding negotiate(String acceptEncoding, Set<Encoding> offered) {
+        if (acceptEncoding == null || acceptEncoding.isBlank() || offered.isEmpty()) {
+            return null;
+        }
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double q = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (!coding.isEmpty()) {
+                weights.put(coding, q);
+            }
+        }
+
+        Encoding best = null;
+        double bestWeight = 0;
+        for (Encoding encoding : offered) {
+            double weight = weights.getOrDefault(encoding.token(), weights.getOrDefault("*", 0.0));
+            if (weight > bestWeight) {
+                best = encoding;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    private static Set<Encoding> loadCodecs() {
+        Set<Encoding> codecs = EnumSet.of(Encoding.GZIP);
+        try {
+            if (Brotli4jLoader.isAvailable()) {
+                codecs.add(Encoding.BROTLI);
+            } else {
+                log.warn("Brotli native library unavailable, not offering br", Brotli4jLoader.getUnavailabilityCause());
+            }
+        } catch (LinkageError e) {
+            log.warn("Brotli native library unavailable, not offering br", e);
+        }
+        try {
+            Native.load();
+            codecs.add(Encoding.ZSTD);
+        } catch (LinkageError e) {
+            log.warn("zstd native library unavailable, not offering zstd", e);
+        }
+        return codecs;
+    }
+}
@@ -0,0 +1,509 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.BulkFormat;
+import com.CodeWithRishu.SnapBuy.dto.ProductBulkRow;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductImportResponse;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.event.ProductChangedEvent;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk catalog import and export. Imports stream the upload row by row, upsert in batches of
+ * {@code product-bulk.batch-size} and queue vector indexing only after every row is written;
+ * exports page through the catalog by id and write each chunk straight to the response.
+ */
+@Service
+@Slf4j
+public class ProductBulkService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    // limits of the product table: VARCHAR(255) strings, TEXT description, DECIMAL(38,2) price, DATETIME release date
+    private static final int MAX_VARCHAR_LENGTH = 255;
+    private static final int MAX_TEXT_BYTES = 65_535;
+    private static final int PRICE_PRECISION = 38;
+    private static final int PRICE_SCALE = 2;
+    private static final int MIN_RELEASE_YEAR = 1000;
+    private static final int MAX_RELEASE_YEAR = 9999;
+
+    private final ProductRepository productRepository;
+    private final ProductVectorIndexer productVectorIndexer;
+    private final ShardedStockService shardedStockService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int exportChunkSize;
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "product-import"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<ProductImportResponse> lastReport = new AtomicReference<>(
+            new ProductImportResponse("IDLE", null, null, null, 0, 0, 0, 0, 0, List.of(), null));
+
+    public ProductBulkService(ProductRepository productRepository,
+                              ProductVectorIndexer productVectorIndexer,
+                              ShardedStockService shardedStockService,
+                              ApplicationEventPublisher eventPublisher,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${product-bulk.batch-size:500}") int batchSize,
+                              @Value("${product-bulk.export-chunk-size:1000}") int exportChunkSize) {
+        this.productRepository = productRepository;
+        this.productVectorIndexer = productVectorIndexer;
+        this.shardedStockService = shardedStockService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.exportChunkSize = exportChunkSize;
+    }
+
+    /**
+     * Spools the upload to a temp file and imports it in the background; one import runs at a time.
+     */
+    public ProductImportResponse startImport(MultipartFile file, BulkFormat format) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Import file is empty");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A product import is already running");
+        }
+
+        Path spool;
+        try {
+            spool = Files.createTempFile("product-import-", "." + format.extension());
+            file.transferTo(spool);
+        } catch (IOException | RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+
+        ProductImportResponse started = new ProductImportResponse("RUNNING", format.name(), Instant.now(), null,
+                0, 0, 0, 0, 0, List.of(), null);
+        lastReport.set(started);
+        jobExecutor.execute(() -> runGuarded(spool, format, started.startedAt()));
+        return started;
+    }
+
+    public ProductImportResponse status() {
+        return lastReport.get();
+    }
+
+    public void export(OutputStream out, BulkFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == BulkFormat.CSV) {
+            CsvSupport.writeRecord(writer, ProductBulkRow.COLUMNS);
+        }
+
+        long afterId = 0;
+        long exported = 0;
+        while (true) {
+            List<ProductBulkRow> chunk = productRepository.findBulkRowsAfter(afterId, PageRequest.of(0, exportChunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (ProductBulkRow row : chunk) {
+                ProductBulkRow current = row.withStockQuantity(shardedStockService.totalStock(row.id(), row.stockQuantity()));
+                if (format == BulkFormat.CSV) {
+                    CsvSupport.writeRecord(writer, toCsv(current));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(current));
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+            afterId = chunk.getLast().id();
+            exported += chunk.size();
+        }
+        writer.flush();
+        log.info("Exported {} products as {}", exported, format);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    private void runGuarded(Path spool, BulkFormat format, Instant startedAt) {
+        Progress progress = new Progress(format, startedAt);
+        try {
+            importFile(spool, format, progress);
+            lastReport.set(progress.report("COMPLETED", Instant.now(), null));
+            log.info("Product import finished: {} created, {} updated, {} rejected", progress.created, progress.updated, progress.rejected);
+        } catch (Exception e) {
+            log.error("Product import failed", e);
+            lastReport.set(progress.report("FAILED", Instant.now(), e.getMessage()));
+        } finally {
+            running.set(false);
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}", spool, e);
+            }
+        }
+    }
+
+    private void importFile(Path spool, BulkFormat format, Progress progress) throws IOException {
+        List<Long> reembed = new ArrayList<>();
+        List<Long> refresh = new ArrayList<>();
+        List<ParsedRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            RowSource source = format == BulkFormat.CSV ? csvSource(reader) : ndjsonSource(reader);
+            ParsedRow parsed;
+            while ((parsed = source.next()) != null) {
+                progress.rowsRead++;
+                String problem = parsed.error() != null ? parsed.error() : validate(parsed.row());
+                if (problem != null) {
+                    progress.reject(parsed.line(), problem);
+                    continue;
+                }
+                batch.add(parsed);
+                if (batch.size() == batchSize) {
+                    writeBatch(batch, progress, reembed, refresh);
+                    batch.clear();
+                    lastReport.set(progress.report("RUNNING", null, null));
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, progress, reembed, refresh);
+        }
+
+        lastReport.set(progress.report("INDEXING", null, null));
+        queueIndexing(reembed, true, progress);
+        queueIndexing(refresh, false, progress);
+    }
+
+    /**
+     * Upserts one batch in a transaction and applies its counts only once that has committed. A batch
+     * the database rejects is written again row by row, so only the offending lines are reported.
+     */
+    private void writeBatch(List<ParsedRow> batch, Progress progress, List<Long> reembed, List<Long> refresh) {
+        BatchResult result;
+        try {
+            result = transactionTemplate.execute(status -> upsert(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                progress.reject(batch.getFirst().line(), "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            log.warn("Product import batch of {} rows failed, retrying it row by row", batch.size(), e);
+            for (ParsedRow parsed : batch) {
+                writeBatch(List.of(parsed), progress, reembed, refresh);
+            }
+            return;
+        }
+
+        progress.created += result.created;
+        // a product listed on several lines of the file is still one update
+        progress.updatedIds.addAll(result.updatedIds);
+        progress.updated = progress.updatedIds.size();
+        result.rejected.forEach(progress::reject);
+        reembed.addAll(result.reembed);
+        refresh.addAll(result.refresh);
+        for (Product product : result.saved) {
+            if (shardedStockService.isSharded(product.getId())) {
+                shardedStockService.resetStock(product.getId(), product.getStockQuantity());
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.saved(product));
+        }
+    }
+
+    private BatchResult upsert(List<ParsedRow> batch) {
+        List<Long> ids = batch.stream().map(parsed -> parsed.row().id()).filter(Objects::nonNull).distinct().toList();
+        Map<Long, Product> existing = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, String> previousHashes = new HashMap<>();
+        existing.forEach((id, product) -> previousHashes.put(id, product.getEmbeddingHash()));
+
+        BatchResult result = new BatchResult();
+        List<Product> products = new ArrayList<>(batch.size());
+        for (ParsedRow parsed : batch) {
+            ProductBulkRow row = parsed.row();
+            Product product;
+            if (row.id() != null) {
+                product = existing.get(row.id());
+                if (product == null) {
+                    result.rejected.put(parsed.line(), "Unknown product id " + row.id());
+                    continue;
+                }
+                result.updatedIds.add(row.id());
+            } else {
+                product = Product.builder().productAvailable(true).build();
+                products.add(product);
+                result.created++;
+            }
+            apply(row, product);
+            product.setEmbeddingHash(ProductVectorIndexer.semanticHash(product));
+        }
+        products.addAll(existing.values());
+
+        List<Product> persisted = productRepository.saveAll(products);
+        for (Product product : persisted) {
+            boolean textChanged = !Objects.equals(product.getEmbeddingHash(), previousHashes.get(product.getId()));
+            (textChanged ? result.reembed : result.refresh).add(product.getId());
+        }
+        result.saved.addAll(persisted);
+        return result;
+    }
+
+    /**
+     * The deferred vector pass: products are reloaded in chunks and handed to the indexing pipeline,
+     * which coalesces them into batched embedding calls.
+     */
+    private void queueIndexing(List<Long> productIds, boolean textChanged, Progress progress) {
+        for (int from = 0; from < productIds.size(); from += batchSize) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + batchSize, productIds.size()));
+            for (Product product : productRepository.findAllById(chunk)) {
+                productVectorIndexer.index(product, textChanged);
+                progress.indexed++;
+            }
+            lastReport.set(progress.report("INDEXING", null, null));
+        }
+    }
+
+    private static void apply(ProductBulkRow row, Product product) {
+        if (row.name() != null) product.setName(row.name().trim());
+        if (row.description() != null) product.setDescription(row.description());
+        if (row.brand() != null) product.setBrand(row.brand());
+        if (row.category() != null) product.setCategory(row.category());
+        if (row.price() != null) product.setPrice(row.price());
+        if (row.releaseDate() != null) product.setReleaseDate(Date.from(row.releaseDate().atStartOfDay(ZoneOffset.UTC).toInstant()));
+        if (row.productAvailable() != null) product.setProductAvailable(row.productAvailable());
+        if (row.stockQuantity() != null) product.setStockQuantity(row.stockQuantity());
+    }
+
+    /**
+     * Checks a row against the product table's column limits, so a bad line is rejected on its own
+     * instead of failing the batch it lands in.
+     */
+    static String validate(ProductBulkRow row) {
+        if (row.id() == null && (row.name() == null || row.name().isBlank())) {
+            return "Name is required for new products";
+        }
+        if (row.id() == null && row.price() == null) {
+            return "Price is required for new products";
+        }
+        if (row.name() != null && row.name().isBlank()) {
+            return "Name must not be blank";
+        }
+        String tooLong = firstTooLong(row);
+        if (tooLong != null) {
+            return tooLong;
+        }
+        if (row.price() != null) {
+            if (row.price().signum() < 0) {
+                return "Price must not be negative";
+            }
+            BigDecimal price = row.price().stripTrailingZeros();
+            if (price.scale() > PRICE_SCALE) {
+                return "Price must have at most " + PRICE_SCALE + " decimal places";
+            }
+            if (price.precision() - price.scale() > PRICE_PRECISION - PRICE_SCALE) {
+                return "Price must have at most " + (PRICE_PRECISION - PRICE_SCALE) + " integer digits";
+            }
+        }
+        if (row.releaseDate() != null && (row.releaseDate().getYear() < MIN_RELEASE_YEAR || row.releaseDate().getYear() > MAX_RELEASE_YEAR)) {
+            return "Release date must be between years " + MIN_RELEASE_YEAR + " and " + MAX_RELEASE_YEAR;
+        }
+        if (row.stockQuantity() != null && row.stockQuantity() < 0) {
+            return "Stock quantity must not be negative";
+        }
+        return null;
+    }
+
+    private static String firstTooLong(ProductBulkRow row) {
+        if (row.name() != null && row.name().trim().length() > MAX_VARCHAR_LENGTH) {
+            return "Name is longer than " + MAX_VARCHAR_LENGTH + " characters";
+        }
+        if (row.brand() != null && row.brand().length() > MAX_VARCHAR_LENGTH) {
+            return "Brand is longer than " + MAX_VARCHAR_LENGTH + " characters";
+        }
+        if (row.category() != null && row.category().length() > MAX_VARCHAR_LENGTH) {
+            return "Category is longer than " + MAX_VARCHAR_LENGTH + " characters";
+        }
+        if (row.description() != null && row.description().getBytes(StandardCharsets.UTF_8).length > MAX_TEXT_BYTES) {
+            return "Description is longer than " + MAX_TEXT_BYTES + " bytes";
+        }
+        return null;
+    }
+
+    private RowSource csvSource(BufferedReader reader) throws IOException {
+        List<String> header = CsvSupport.readRecord(reader);
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(), i);
+        }
+        if (!columns.containsKey("name") && !columns.containsKey("id")) {
+            throw new IOException("CSV header must contain an id or name column");
+        }
+
+        long[] line = {1};
+        return () -> {
+            List<String> record;
+            do {
+                record = CsvSupport.readRecord(reader);
+                line[0]++;
+            } while (record != null && record.size() == 1 && record.getFirst().isBlank());
+            if (record == null) {
+                return null;
+            }
+            try {
+                return new ParsedRow(line[0], fromCsv(record, columns), null);
+            } catch (RuntimeException e) {
+                return new ParsedRow(line[0], null, "Invalid value: " + e.getMessage());
+            }
+        };
+    }
+
+    private RowSource ndjsonSource(BufferedReader reader) {
+        long[] line = {0};
+        return () -> {
+            String json;
+            do {
+                json = reader.readLine();
+                line[0]++;
+            } while (json != null && json.isBlank());
+            if (json == null) {
+                return null;
+            }
+            try {
+                return new ParsedRow(line[0], objectMapper.readValue(json, ProductBulkRow.class), null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(line[0], null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private static ProductBulkRow fromCsv(List<String> record, Map<String, Integer> columns) {
+        Function<String, String> cell = column -> {
+            Integer index = columns.get(column.toLowerCase());
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index);
+            return value.isEmpty() ? null : value;
+        };
+        String id = cell.apply("id");
+        String price = cell.apply("price");
+        String releaseDate = cell.apply("releaseDate");
+        String available = cell.apply("productAvailable");
+        String stock = cell.apply("stockQuantity");
+        return new ProductBulkRow(
+                id != null ? Long.valueOf(id.trim()) : null,
+                cell.apply("name"),
+                cell.apply("description"),
+                cell.apply("brand"),
+                cell.apply("category"),
+                price != null ? new BigDecimal(price.trim()) : null,
+                releaseDate != null ? LocalDate.parse(releaseDate.trim()) : null,
+                available != null ? Boolean.valueOf(available.trim()) : null,
+                stock != null ? Integer.valueOf(stock.trim()) : null);
+    }
+
+    private static String[] toCsv(ProductBulkRow row) {
+        return new String[]{
+                String.valueOf(row.id()),
+                row.name(),
+                row.description(),
+                row.brand(),
+                row.category(),
+                row.price() != null ? row.price().toPlainString() : null,
+                row.releaseDate() != null ? row.releaseDate().toString() : null,
+                String.valueOf(row.productAvailable()),
+                String.valueOf(row.stockQuantity())
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        ParsedRow next() throws IOException;
+    }
+
+    private record ParsedRow(long line, ProductBulkRow row, String error) {
+    }
+
+    private static final class BatchResult {
+        private final List<Product> saved = new ArrayList<>();
+        private final List<Long> reembed = new ArrayList<>();
+        private final List<Long> refresh = new ArrayList<>();
+        // line number to reason
+        private final Map<Long, String> rejected = new LinkedHashMap<>();
+        private final Set<Long> updatedIds = new HashSet<>();
+        private long created;
+    }
+
+    private static final class Progress {
+        private final BulkFormat format;
+        private final Instant startedAt;
+        private final List<String> errors = new ArrayList<>();
+        private final Set<Long> updatedIds = new HashSet<>();
+        private long rowsRead;
+        private long created;
+        private long updated;
+        private long rejected;
+        private long indexed;
+
+        private Progress(BulkFormat format, Instant startedAt) {
+            this.format = format;
+            this.startedAt = startedAt;
+        }
+
+        private void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + line + ": " + reason);
+            }
+        }
+
+        private ProductImportResponse report(String status, Instant finishedAt, String error) {
+            return new ProductImportResponse(status, format.name(), startedAt, finishedAt, rowsRead, created, updated,
+                    rejected, indexed, List.copyOf(errors), error);
+        }
+    }
+}
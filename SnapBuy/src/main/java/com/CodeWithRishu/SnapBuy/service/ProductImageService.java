@@ -0,0 +1,256 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.event.ProductChangedEvent;
+import com.CodeWithRishu.SnapBuy.exception.ResourceNotFoundException;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves product images as JPEG thumbnails in a fixed set of widths. Thumbnails are generated on first
+ * request, written to {@code product-image.cache-dir} and kept in a byte-bounded LRU; their names carry
+ * the original's content hash, so a new upload never serves a stale variant.
+ */
+@Service
+@Slf4j
+public class ProductImageService {
+
+    private static final String THUMBNAIL_TYPE = "image/jpeg";
+    // cached for products without an image, so repeated requests for them stay off the database
+    private static final String NO_IMAGE = "";
+
+    private final ProductRepository productRepository;
+    private final int[] widths;
+    private final Path cacheDir;
+    private final float jpegQuality;
+    private final ByteBoundedCache<ProductImage> memoryCache;
+    private final Map<Long, String> versions = new ConcurrentHashMap<>();
+
+    public ProductImageService(ProductRepository productRepository,
+                               @Value("${product-image.widths:160,480,1024}") int[] widths,
+                               @Value("${product-image.cache-dir:data/thumbnails}") String cacheDir,
+                               @Value("${product-image.jpeg-quality:0.82}") float jpegQuality,
+                               @Value("${product-image.memory-cache-bytes:33554432}") long memoryCacheBytes) {
+        this.productRepository = productRepository;
+        this.widths = Arrays.stream(widths).sorted().toArray();
+        this.cacheDir = Paths.get(cacheDir);
+        this.jpegQuality = jpegQuality;
+        this.memoryCache = new ByteBoundedCache<>(memoryCacheBytes, image -> image.data().length, (image, previous) -> true);
+    }
+
+    public record ProductImage(byte[] data, String contentType, String etag) {
+    }
+
+    /**
+     * Hashes the images of rows saved before hashes existed, in the database, before any request is served;
+     * every later write hashes its upload in ProductService.
+     */
+    @PostConstruct
+    void backfillHashes() {
+        int backfilled = productRepository.backfillImageHashes();
+        if (backfilled > 0) {
+            log.info("Backfilled image hashes of {} products", backfilled);
+        }
+    }
+
+    /**
+     * Content hash of the product's original image, read from the row once and then served from memory,
+     * including the answer that there is none. Cheap enough to run before every conditional request.
+     */
+    public String version(long productId) {
+        String hash = versions.computeIfAbsent(productId,
+                id -> productRepository.findImageHashById(id).orElse(NO_IMAGE));
+        if (hash.equals(NO_IMAGE)) {
+            throw new ResourceNotFoundException("Product " + productId + " has no image");
+        }
+        return hash;
+    }
+
+    /**
+     * Smallest configured width that covers the request, or null for the original.
+     */
+    public Integer variantWidth(Integer requestedWidth) {
+        if (requestedWidth == null) {
+            return null;
+        }
+        for (int width : widths) {
+            if (width >= requestedWidth) {
+                return width;
+            }
+        }
+        return widths[widths.length - 1];
+    }
+
+    public static String etag(String version, Integer width) {
+        return "\"" + (width == null ? version : version.substring(0, 16) + "-" + width) + "\"";
+    }
+
+    public ProductImage load(long productId, Integer width, String version) {
+        if (width == null) {
+            Product product = loadWithImage(productId);
+            return new ProductImage(product.getImageData(), contentType(product), etag(version, null));
+        }
+
+        String key = productId + ":" + width + ":" + version;
+        return memoryCache.getOrLoad(key, image -> true, () -> readOrGenerate(productId, width, version));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        versions.remove(event.productId());
+        if (event.deleted()) {
+            deleteVariants(event.productId(), null);
+        }
+    }
+
+    private ProductImage readOrGenerate(long productId, int width, String version) {
+        Path file = cacheDir.resolve(String.valueOf(productId)).resolve(width + "-" + version + ".jpg");
+        try {
+            if (Files.exists(file)) {
+                return new ProductImage(Files.readAllBytes(file), THUMBNAIL_TYPE, etag(version, width));
+            }
+
+            Product product = loadWithImage(productId);
+            BufferedImage original = ImageIO.read(new ByteArrayInputStream(product.getImageData()));
+            if (original == null) {
+                // a format ImageIO cannot decode; serve the upload unchanged
+                return new ProductImage(product.getImageData(), contentType(product), etag(version, null));
+            }
+
+            byte[] thumbnail = encodeJpeg(resize(original, width), jpegQuality);
+            Files.createDirectories(file.getParent());
+            deleteVariants(productId, version);
+            Path temp = Files.createTempFile(file.getParent(), "thumb-", ".tmp");
+            Files.write(temp, thumbnail);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Generated {}px thumbnail for product {} ({} bytes)", width, productId, thumbnail.length);
+            return new ProductImage(thumbnail, THUMBNAIL_TYPE, etag(version, width));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not build thumbnail for product " + productId, e);
+        }
+    }
+
+    private Product loadWithImage(long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
+        if (product.getImageData() == null || product.getImageData().length == 0) {
+            throw new ResourceNotFoundException("Product " + productId + " has no image");
+        }
+        return product;
+    }
+
+    /**
+     * Removes the product's cached variants, keeping those of {@code keepVersion} if given.
+     */
+    private void deleteVariants(long productId, String keepVersion) {
+        Path dir = cacheDir.resolve(String.valueOf(productId));
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.jpg")) {
+            for (Path file : files) {
+                if (keepVersion == null || !file.getFileName().toString().endsWith("-" + keepVersion + ".jpg")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean thumbnails of product {}", productId, e);
+        }
+    }
+
+    private static String contentType(Product product) {
+        return product.getImageType() != null ? product.getImageType() : "application/octet-stream";
+    }
+
+    /**
+     * Scales down to {@code width} in halving steps, which keeps bilinear filtering from aliasing on
+     * large reductions. Transparent areas are flattened onto white since JPEG has no alpha.
+     */
+    static BufferedImage resize(BufferedImage source, int width) {
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        BufferedImage current = draw(source, currentWidth, currentHeight);
+        if (currentWidth <= width) {
+            return current;
+        }
+        while (currentWidth / 2 >= width) {
+            currentWidth /= 2;
+            currentHeight = Math.max(1, currentHeight / 2);
+            current = draw(current, currentWidth, currentHeight);
+        }
+        int height = Math.max(1, (int) Math.round((double) currentHeight * width / currentWidth));
+        return draw(current, width, height);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG encoder available");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    public static String imageHash(byte[] imageData) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(imageData));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
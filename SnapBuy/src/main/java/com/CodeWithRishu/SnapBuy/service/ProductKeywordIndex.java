@@ -0,0 +1,180 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.ProductIndexRow;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.event.ProductChangedEvent;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory BM25 index over product name, brand, category and description.
+ * Catches exact SKU and brand matches that dense retrieval tends to miss.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductKeywordIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int LOAD_CHUNK_SIZE = 500;
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedProduct> products = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private long totalTerms;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        int loaded = 0;
+        List<ProductIndexRow> chunk;
+        while (!(chunk = productRepository.findIndexRowsAfter(afterId, PageRequest.of(0, LOAD_CHUNK_SIZE))).isEmpty()) {
+            chunk.forEach(row -> put(row.toProduct()));
+            afterId = chunk.getLast().id();
+            loaded += chunk.size();
+        }
+        log.info("Keyword index loaded with {} products", loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.productId());
+        } else {
+            put(event.product());
+        }
+    }
+
+    public void put(Product product) {
+        Map<String, Integer> termFrequencies = termFrequencies(product);
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(product.getId());
+            products.put(product.getId(), new IndexedProduct(ProductVectorIndexer.toDocument(product), termFrequencies, length));
+            termFrequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getId(), tf));
+            totalTerms += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Document> search(String query, int topK, Predicate<Map<String, Object>> metadataFilter) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = products.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalTerms / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((productId, tf) -> {
+                    int length = products.get(productId).length();
+                    double weight = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(productId, weight, Double::sum);
+                });
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()))
+                    .map(entry -> products.get(entry.getKey()).document())
+                    .filter(document -> metadataFilter.test(document.getMetadata()))
+                    .limit(topK)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("\\s+")) {
+            String compact = word.replaceAll("[^\\p{L}\\p{N}]", "");
+            if (compact.isEmpty()) {
+                continue;
+            }
+            tokens.add(compact);
+            for (String part : word.split("[^\\p{L}\\p{N}]+")) {
+                if (!part.isEmpty() && !part.equals(compact)) {
+                    tokens.add(part);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private void removeLocked(long productId) {
+        IndexedProduct previous = products.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        previous.termFrequencies().keySet().forEach(term -> {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(productId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+        totalTerms -= previous.length();
+    }
+
+    private Map<String, Integer> termFrequencies(Product product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        // name and brand are counted twice so exact title/brand hits outrank description mentions
+        for (String field : new String[]{product.getName(), product.getName(), product.getBrand(), product.getBrand(),
+                product.getCategory(), product.getDescription()}) {
+            tokenize(field).forEach(token -> frequencies.merge(token, 1, Integer::sum));
+        }
+        return frequencies;
+    }
+
+    private record IndexedProduct(Document document, Map<String, Integer> termFrequencies, int length) {
+    }
+}
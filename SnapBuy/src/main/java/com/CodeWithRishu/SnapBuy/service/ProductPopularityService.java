@@ -0,0 +1,217 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderSalesRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.response.CategoryTrendResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductSummaryResponse;
+import com.CodeWithRishu.SnapBuy.entity.ProductPopularity;
+import com.CodeWithRishu.SnapBuy.event.OrderPlacedEvent;
+import com.CodeWithRishu.SnapBuy.event.OrderStatusChangedEvent;
+import com.CodeWithRishu.SnapBuy.event.ProductChangedEvent;
+import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
+import com.CodeWithRishu.SnapBuy.repository.ProductPopularityRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-seller and trending lists from decayed sales counters fed by placed orders, less the ones later
+ * cancelled or returned. Each product and
+ * category keeps a slow-decaying best-seller score and a fast-decaying trending score in lock-striped
+ * memory; what each product gained since the last checkpoint is added to {@code product_popularity},
+ * which is reloaded on startup, so ranking never queries the order tables and instances sharing the
+ * table add up rather than overwrite each other.
+ */
+@Service
+@Slf4j
+public class ProductPopularityService {
+
+    static final int BEST_SELLER = 0;
+    static final int TRENDING = 1;
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+    private static final Set<OrderStatus> NOT_SOLD = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.RETURNED);
+
+    private final ProductPopularityRepository popularityRepository;
+    private final OrderRepository orderRepository;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final double[] halfLivesMillis;
+    private final int maxResults;
+    private final DecayedCounters<Long> products;
+    private final DecayedCounters<String> categories;
+    private final Queue<String> reversals = new ConcurrentLinkedQueue<>();
+
+    public ProductPopularityService(ProductPopularityRepository popularityRepository,
+                                    OrderRepository orderRepository,
+                                    CatalogFacetIndex catalogFacetIndex,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${popularity.stripes:64}") int stripes,
+                                    @Value("${popularity.best-seller-half-life-hours:720}") double bestSellerHalfLifeHours,
+                                    @Value("${popularity.trending-half-life-hours:24}") double trendingHalfLifeHours,
+                                    @Value("${popularity.max-results:50}") int maxResults) {
+        this.popularityRepository = popularityRepository;
+        this.orderRepository = orderRepository;
+        this.catalogFacetIndex = catalogFacetIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.halfLivesMillis = new double[]{
+                bestSellerHalfLifeHours * TimeUnit.HOURS.toMillis(1),
+                trendingHalfLifeHours * TimeUnit.HOURS.toMillis(1)};
+        this.maxResults = maxResults;
+        this.products = new DecayedCounters<>(stripes, halfLivesMillis);
+        this.categories = new DecayedCounters<>(stripes, halfLivesMillis);
+    }
+
+    /**
+     * Restores product counters from the checkpoint table; category counters are the sums of their
+     * products', which decay the same way.
+     */
+    @PostConstruct
+    void load() {
+        long now = System.currentTimeMillis();
+        Map<String, double[]> categoryTotals = new HashMap<>();
+        List<ProductPopularity> rows = popularityRepository.findAll();
+        for (ProductPopularity row : rows) {
+            long at = row.getScoredAt().toEpochMilli();
+            double[] values = {row.getBestSellerScore(), row.getTrendingScore()};
+            products.restore(row.getProductId(), row.getCategory(), values, at);
+            if (row.getCategory() != null) {
+                double[] total = categoryTotals.computeIfAbsent(row.getCategory(), c -> new double[values.length]);
+                for (int i = 0; i < values.length; i++) {
+                    total[i] += values[i] * Math.pow(0.5, Math.max(0, now - at) / halfLivesMillis[i]);
+                }
+            }
+        }
+        categoryTotals.forEach((category, total) -> categories.restore(category, null, total, now));
+        log.info("Popularity counters restored for {} products", rows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        long now = event.placedAt().toEpochMilli();
+        for (OrderPlacedEvent.Line line : event.lines()) {
+            products.add(line.productId(), line.category(), line.quantity(), now);
+            if (line.category() != null) {
+                categories.add(line.category(), null, line.quantity(), now);
+            }
+        }
+    }
+
+    /**
+     * Both statuses are terminal, so an order is taken back at most once; its lines are looked up in
+     * batches at the next checkpoint.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (NOT_SOLD.contains(event.status())) {
+            reversals.add(event.orderId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.deleted()) {
+            products.remove(event.productId());
+            popularityRepository.deleteById(event.productId());
+        }
+    }
+
+    public List<ProductSummaryResponse> bestSellers(int limit) {
+        return ranked(BEST_SELLER, null, limit);
+    }
+
+    public List<ProductSummaryResponse> trending(String category, int limit) {
+        return ranked(TRENDING, category, limit);
+    }
+
+    public List<CategoryTrendResponse> trendingCategories(int limit) {
+        return categories.top(TRENDING, Math.min(limit, maxResults), group -> true, System.currentTimeMillis()).stream()
+                .map(scored -> new CategoryTrendResponse(scored.key(), scored.score()))
+                .toList();
+    }
+
+    /**
+     * Adds what the counters gained since the last checkpoint, decayed to now. A failed write puts
+     * the increments back for the next run.
+     */
+    @Scheduled(fixedDelayString = "${popularity.checkpoint-interval-ms:60000}")
+    @PreDestroy
+    public void checkpoint() {
+        applyReversals();
+        long now = System.currentTimeMillis();
+        List<DecayedCounters.Snapshot<Long>> dirty = products.drainDirty(now);
+        if (dirty.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> dirty.forEach(snapshot -> popularityRepository.add(
+                    snapshot.key(), snapshot.group(), snapshot.deltas()[BEST_SELLER], snapshot.deltas()[TRENDING],
+                    Instant.ofEpochMilli(snapshot.at()), halfLivesMillis[BEST_SELLER], halfLivesMillis[TRENDING])));
+            log.debug("Checkpointed popularity of {} products", dirty.size());
+        } catch (RuntimeException e) {
+            products.requeue(dirty);
+            log.warn("Popularity checkpoint of {} products failed, will retry", dirty.size(), e);
+        }
+    }
+
+    /**
+     * Subtracts the lines of cancelled and returned orders as of when they were placed, so the amount
+     * taken back has decayed exactly as far as the sale it cancels.
+     */
+    private void applyReversals() {
+        List<String> orderIds = new ArrayList<>();
+        String orderId;
+        while ((orderId = reversals.poll()) != null) {
+            orderIds.add(orderId);
+        }
+        for (int from = 0; from < orderIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<OrderSalesRow> lines;
+            try {
+                lines = orderRepository.findSalesLinesByOrderIds(orderIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, orderIds.size())));
+            } catch (RuntimeException e) {
+                reversals.addAll(orderIds.subList(from, orderIds.size()));
+                log.warn("Looking up {} cancelled or returned orders failed, will retry", orderIds.size() - from, e);
+                return;
+            }
+            for (OrderSalesRow line : lines) {
+                if (line.productId() == null) {
+                    continue;
+                }
+                long placedAt = line.createdAt().toEpochMilli();
+                products.add(line.productId(), line.category(), -line.quantity(), placedAt);
+                if (line.category() != null) {
+                    categories.add(line.category(), null, -line.quantity(), placedAt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Over-fetches from the counters since deleted or not yet indexed products drop out on hydration.
+     */
+    private List<ProductSummaryResponse> ranked(int value, String category, int limit) {
+        int wanted = Math.clamp(limit, 0, maxResults);
+        List<Long> ids = products.top(value, wanted * 2, group -> category == null || category.equalsIgnoreCase(group),
+                        System.currentTimeMillis()).stream()
+                .map(scored -> scored.key())
+                .toList();
+        List<ProductSummaryResponse> summaries = catalogFacetIndex.summaries(ids);
+        return summaries.subList(0, Math.min(wanted, summaries.size()));
+    }
+}
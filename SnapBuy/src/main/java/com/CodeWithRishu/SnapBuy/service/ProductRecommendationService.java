@@ -0,0 +1,231 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderLineRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductSummaryResponse;
+import com.CodeWithRishu.SnapBuy.entity.ProductRecommendation;
+import com.CodeWithRishu.SnapBuy.event.ProductChangedEvent;
+import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
+import com.CodeWithRishu.SnapBuy.repository.ProductRecommendationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * "Customers also bought" lists precomputed from order co-occurrence. A background rebuild streams
+ * order lines in keyset chunks into a {@link CoOccurrenceMatrix}, replaces the stored top neighbours
+ * of every product and swaps them into memory, so the endpoint never touches the order tables.
+ */
+@Service
+@Slf4j
+public class ProductRecommendationService {
+
+    private final OrderRepository orderRepository;
+    private final ProductRecommendationRepository recommendationRepository;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final ProductPopularityService productPopularityService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int topN;
+    private final int minSupport;
+    private final int maxItemsPerOrder;
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "recommendation-rebuild"));
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Map<Long, long[]> related = Map.of();
+
+    public ProductRecommendationService(OrderRepository orderRepository,
+                                        ProductRecommendationRepository recommendationRepository,
+                                        CatalogFacetIndex catalogFacetIndex,
+                                        ProductPopularityService productPopularityService,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${recommendations.chunk-size:5000}") int chunkSize,
+                                        @Value("${recommendations.top-n:10}") int topN,
+                                        @Value("${recommendations.min-support:2}") int minSupport,
+                                        @Value("${recommendations.max-items-per-order:50}") int maxItemsPerOrder) {
+        this.orderRepository = orderRepository;
+        this.recommendationRepository = recommendationRepository;
+        this.catalogFacetIndex = catalogFacetIndex;
+        this.productPopularityService = productPopularityService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.topN = topN;
+        this.minSupport = minSupport;
+        this.maxItemsPerOrder = maxItemsPerOrder;
+    }
+
+    @PostConstruct
+    void load() {
+        Map<Long, List<Long>> byProduct = new HashMap<>();
+        List<ProductRecommendation> rows = recommendationRepository.findAllRanked();
+        for (ProductRecommendation row : rows) {
+            byProduct.computeIfAbsent(row.getProductId(), id -> new ArrayList<>()).add(row.getRelatedProductId());
+        }
+        Map<Long, long[]> loaded = new HashMap<>(byProduct.size() * 2);
+        byProduct.forEach((productId, ids) -> loaded.put(productId, ids.stream().mapToLong(Long::longValue).toArray()));
+        related = loaded;
+        log.info("Recommendations loaded for {} products", loaded.size());
+    }
+
+    /**
+     * Up to {@code limit} products bought together with {@code productId}, strongest first. Products
+     * without enough co-purchases fall back to what is trending in their category.
+     */
+    public List<ProductSummaryResponse> related(long productId, int limit) {
+        int wanted = Math.clamp(limit, 0, topN);
+        long[] neighbours = related.get(productId);
+        if (neighbours != null) {
+            List<ProductSummaryResponse> summaries = catalogFacetIndex.summaries(Arrays.stream(neighbours).boxed().toList());
+            if (!summaries.isEmpty()) {
+                return summaries.subList(0, Math.min(wanted, summaries.size()));
+            }
+        }
+        List<ProductSummaryResponse> self = catalogFacetIndex.summaries(List.of(productId));
+        if (self.isEmpty()) {
+            return List.of();
+        }
+        return productPopularityService.trending(self.getFirst().category(), wanted + 1).stream()
+                .filter(summary -> summary.id() != productId)
+                .limit(wanted)
+                .toList();
+    }
+
+    /**
+     * Queues a rebuild; only one runs at a time.
+     */
+    public void startRebuild() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A recommendation rebuild is already running");
+        }
+        try {
+            jobExecutor.execute(this::runGuarded);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    @Scheduled(cron = "${recommendations.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        try {
+            startRebuild();
+        } catch (ResponseStatusException e) {
+            log.info("Skipping scheduled recommendation rebuild, one is already running");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!event.deleted()) {
+            return;
+        }
+        long deleted = event.productId();
+        Map<Long, long[]> current = related;
+        Map<Long, long[]> pruned = new HashMap<>(current);
+        pruned.remove(deleted);
+        pruned.replaceAll((productId, ids) -> Arrays.stream(ids).filter(id -> id != deleted).toArray());
+        related = pruned;
+        transactionTemplate.executeWithoutResult(status -> recommendationRepository.deleteByProduct(deleted));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    private void runGuarded() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Recommendation rebuild failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    void rebuild() {
+        long started = System.currentTimeMillis();
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix(maxItemsPerOrder);
+        long orders = streamOrders(matrix);
+        Map<Long, CoOccurrenceMatrix.Neighbours> neighbours = matrix.topNeighbours(topN, minSupport);
+
+        List<ProductRecommendation> rows = new ArrayList<>();
+        Map<Long, long[]> rebuilt = new HashMap<>(neighbours.size() * 2);
+        neighbours.forEach((productId, top) -> {
+            rebuilt.put(productId, top.productIds());
+            for (int rank = 0; rank < top.productIds().length; rank++) {
+                rows.add(ProductRecommendation.builder()
+                        .productId(productId)
+                        .relatedProductId(top.productIds()[rank])
+                        .rank(rank)
+                        .score(top.scores()[rank])
+                        .build());
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            recommendationRepository.deleteAllInBatch();
+            recommendationRepository.saveAll(rows);
+        });
+        related = rebuilt;
+        log.info("Recommendations rebuilt from {} orders ({} product pairs) for {} products in {} ms",
+                orders, matrix.pairs(), rebuilt.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Feeds every non-cancelled order into the matrix. A full chunk may end part way through an order,
+     * so its last order is left for the next chunk unless it is the only one in the chunk.
+     */
+    private long streamOrders(CoOccurrenceMatrix matrix) {
+        long afterOrderId = 0;
+        long orders = 0;
+        long[] basket = new long[maxItemsPerOrder * 4];
+        while (true) {
+            List<OrderLineRow> chunk = orderRepository.findOrderLinesAfter(afterOrderId, OrderStatus.CANCELLED,
+                    PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return orders;
+            }
+            int end = chunk.size();
+            long lastOrderId = chunk.getLast().orderId();
+            if (end == chunkSize && chunk.getFirst().orderId() != lastOrderId) {
+                while (chunk.get(end - 1).orderId() == lastOrderId) {
+                    end--;
+                }
+            }
+            int start = 0;
+            while (start < end) {
+                long orderId = chunk.get(start).orderId();
+                int length = 0;
+                int i = start;
+                for (; i < end && chunk.get(i).orderId() == orderId; i++) {
+                    if (length == basket.length) {
+                        basket = Arrays.copyOf(basket, length * 2);
+                    }
+                    basket[length++] = chunk.get(i).productId();
+                }
+                matrix.addOrder(basket, length);
+                orders++;
+                afterOrderId = orderId;
+                start = i;
+            }
+        }
+    }
+}
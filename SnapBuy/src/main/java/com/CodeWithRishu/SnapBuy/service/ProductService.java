@@ -1,15 +1,15 @@
 package com.CodeWithRishu.SnapBuy.service;
 
 import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.event.ProductChangedEvent;
 import com.CodeWithRishu.SnapBuy.exception.ResourceNotFoundException;
 import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.document.Document;
-import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,7 +19,6 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 @Service
@@ -28,12 +27,18 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ChatClient chatClient;
-    private final VectorStore vectorStore;
+    private final ProductVectorIndexer productVectorIndexer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardedStockService shardedStockService;
 
-    public ProductService(ProductRepository productRepository, ChatClient.Builder chatClientBuilder, VectorStore vectorStore) {
+    public ProductService(ProductRepository productRepository, ChatClient.Builder chatClientBuilder,
+                          ProductVectorIndexer productVectorIndexer, ApplicationEventPublisher eventPublisher,
+                          ShardedStockService shardedStockService) {
         this.productRepository = productRepository;
         this.chatClient = chatClientBuilder.build();
-        this.vectorStore = vectorStore;
+        this.productVectorIndexer = productVectorIndexer;
+        this.eventPublisher = eventPublisher;
+        this.shardedStockService = shardedStockService;
     }
 
     public List<Product> getAllProduct() {
@@ -83,47 +88,36 @@ public class ProductService {
                 .stockQuantity(product.getStockQuantity());
 
         if (image != null && !image.isEmpty()) {
+            byte[] imageData = image.getBytes();
             builder.imageName(image.getOriginalFilename())
                     .imageType(image.getContentType())
-                    .imageData(image.getBytes());
-        } else {
+                    .imageData(imageData)
+                    .imageHash(ProductImageService.imageHash(imageData));
+        } else if (product.getImageData() != null) {
             builder.imageName(product.getImageName())
                     .imageType(product.getImageType())
-                    .imageData(product.getImageData());
+                    .imageData(product.getImageData())
+                    .imageHash(ProductImageService.imageHash(product.getImageData()));
+        } else {
+            // product JSON no longer carries image bytes, so an edit without a new upload keeps the stored image
+            productRepository.findById(product.getId()).ifPresent(existing -> builder.imageName(existing.getImageName())
+                    .imageType(existing.getImageType())
+                    .imageData(existing.getImageData())
+                    .imageHash(existing.getImageHash()));
         }
 
+        String embeddingHash = ProductVectorIndexer.semanticHash(product);
+        boolean textChanged = !embeddingHash.equals(productRepository.findEmbeddingHashById(product.getId()).orElse(null));
+        builder.embeddingHash(embeddingHash);
+
         Product savedProduct = productRepository.save(builder.build());
+        if (shardedStockService.isSharded(savedProduct.getId())) {
+            shardedStockService.resetStock(savedProduct.getId(), savedProduct.getStockQuantity());
+        }
 
-        String content = String.format("""
-                        Product Name: %s
-                        Description: %s
-                        Brand: %s
-                        Category: %s
-                        Price: %.2f
-                        Release Date: %s
-                        Available: %s
-                        Stock: %s
-                        """,
-                savedProduct.getName(),
-                savedProduct.getDescription(),
-                savedProduct.getBrand(),
-                savedProduct.getCategory(),
-                savedProduct.getPrice(),
-                savedProduct.getReleaseDate(),
-                savedProduct.isProductAvailable(),
-                savedProduct.getStockQuantity()
-        );
-
-        String documentId = String.valueOf(savedProduct.getId());
-
-        Document document = new Document(
-                documentId,
-                content,
-                Map.of("productId", String.valueOf(savedProduct.getId()))
-        );
-
-        vectorStore.add(List.of(document));
-        log.info("Product saved and added to Vector Store: {}", savedProduct.getId());
+        productVectorIndexer.index(savedProduct, textChanged);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(savedProduct));
+        log.info("Product saved and synced to Vector Store: {}", savedProduct.getId());
 
         return savedProduct;
     }
@@ -134,8 +128,12 @@ public class ProductService {
     })
 
     public void deleteProduct(long id) {
+        if (shardedStockService.isSharded(id)) {
+            shardedStockService.disable(id);
+        }
         productRepository.deleteById(id);
-        vectorStore.delete(List.of(String.valueOf(id)));
+        productVectorIndexer.remove(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
         log.info("Product with id {} deleted successfully", id);
     }
 
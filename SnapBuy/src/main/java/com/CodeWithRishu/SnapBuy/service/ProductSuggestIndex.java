@@ -0,0 +1,282 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.ProductOrderCountRow;
+import com.CodeWithRishu.SnapBuy.dto.ProductSnapshotRow;
+import com.CodeWithRishu.SnapBuy.dto.response.SuggestionResponse;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.event.ProductChangedEvent;
+import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typeahead over product names, brands and categories. Every word start of a name is a key, so
+ * "ipho" finds "Apple iPhone 15". Products weigh one plus their order count; brands and categories
+ * weigh the sum of their products. Kept current from product events, order counts are reloaded on a
+ * schedule.
+ */
+@Service
+@Slf4j
+public class ProductSuggestIndex {
+
+    public static final String PRODUCT = "product";
+    public static final String BRAND = "brand";
+    public static final String CATEGORY = "category";
+
+    private static final int LOAD_CHUNK_SIZE = 500;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Comparator<SuggestionResponse> ORDER = Comparator
+            .comparingLong(SuggestionResponse::weight).reversed()
+            .thenComparingInt(suggestion -> suggestion.text().length())
+            .thenComparing(SuggestionResponse::text)
+            .thenComparing(SuggestionResponse::type)
+            .thenComparing(SuggestionResponse::productId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final int maxResults;
+    private final int maxNameWords;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CompletionTrie<SuggestionResponse> trie;
+    private final Map<Long, IndexedProduct> products = new HashMap<>();
+    private final Map<Long, Long> orderCounts = new HashMap<>();
+    private final Map<String, Group> brands = new HashMap<>();
+    private final Map<String, Group> categories = new HashMap<>();
+
+    public ProductSuggestIndex(ProductRepository productRepository,
+                               OrderRepository orderRepository,
+                               @Value("${suggest.max-results:10}") int maxResults,
+                               @Value("${suggest.max-name-words:6}") int maxNameWords) {
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.maxResults = maxResults;
+        this.maxNameWords = maxNameWords;
+        this.trie = new CompletionTrie<>(maxResults, ORDER);
+    }
+
+    private record IndexedProduct(String name, String brand, String category, SuggestionResponse suggestion) {
+    }
+
+    /**
+     * All products sharing a brand or category; the running total avoids re-summing on every change.
+     */
+    private static final class Group {
+        final String type;
+        final String text;
+        final Map<Long, Long> weights = new HashMap<>();
+        long total;
+        SuggestionResponse suggestion;
+
+        Group(String type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Long, Long> counts = loadOrderCounts();
+        long afterId = 0;
+        int loaded = 0;
+        List<ProductSnapshotRow> chunk;
+        lock.writeLock().lock();
+        try {
+            orderCounts.putAll(counts);
+            while (!(chunk = productRepository.findSnapshotRowsAfter(afterId, PageRequest.of(0, LOAD_CHUNK_SIZE))).isEmpty()) {
+                chunk.forEach(row -> putLocked(row.id(), row.name(), row.brand(), row.category()));
+                afterId = chunk.getLast().id();
+                loaded += chunk.size();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggest index loaded with {} products, {} brands and {} categories", loaded, brands.size(), categories.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.productId());
+        } else {
+            put(event.product());
+        }
+    }
+
+    public void put(Product product) {
+        lock.writeLock().lock();
+        try {
+            putLocked(product.getId(), product.getName(), product.getBrand(), product.getCategory());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reweights the products whose order count moved since the last load.
+     */
+    @Scheduled(initialDelayString = "${suggest.popularity-refresh-ms:600000}", fixedDelayString = "${suggest.popularity-refresh-ms:600000}")
+    public void refreshPopularity() {
+        Map<Long, Long> counts = loadOrderCounts();
+        int changed = 0;
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, IndexedProduct> entry : List.copyOf(products.entrySet())) {
+                long productId = entry.getKey();
+                long count = counts.getOrDefault(productId, 0L);
+                if (orderCounts.getOrDefault(productId, 0L) != count) {
+                    orderCounts.put(productId, count);
+                    IndexedProduct product = entry.getValue();
+                    putLocked(productId, product.name(), product.brand(), product.category());
+                    changed++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Suggest popularity refreshed, {} products reweighted", changed);
+    }
+
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.top(key, Math.min(limit, maxResults));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Long> loadOrderCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (ProductOrderCountRow row : orderRepository.countOrdersByProduct(OrderStatus.CANCELLED)) {
+            counts.put(row.productId(), row.orders());
+        }
+        return counts;
+    }
+
+    private void putLocked(long productId, String name, String brand, String category) {
+        removeLocked(productId);
+        long weight = 1 + orderCounts.getOrDefault(productId, 0L);
+        SuggestionResponse suggestion = null;
+        if (name != null && !normalize(name).isEmpty()) {
+            suggestion = new SuggestionResponse(PRODUCT, name.trim(), productId, weight);
+            insert(suggestion);
+        }
+        join(brands, BRAND, brand, productId, weight);
+        join(categories, CATEGORY, category, productId, weight);
+        products.put(productId, new IndexedProduct(name, brand, category, suggestion));
+    }
+
+    private void removeLocked(long productId) {
+        IndexedProduct previous = products.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        if (previous.suggestion() != null) {
+            delete(previous.suggestion());
+        }
+        leave(brands, previous.brand(), productId);
+        leave(categories, previous.category(), productId);
+    }
+
+    private void join(Map<String, Group> groups, String type, String text, long productId, long weight) {
+        String key = text != null ? normalize(text) : "";
+        if (key.isEmpty()) {
+            return;
+        }
+        Group group = groups.computeIfAbsent(key, k -> new Group(type, text.trim()));
+        Long previous = group.weights.put(productId, weight);
+        group.total += weight - (previous != null ? previous : 0);
+        regroup(group);
+    }
+
+    private void leave(Map<String, Group> groups, String text, long productId) {
+        String key = text != null ? normalize(text) : "";
+        Group group = groups.get(key);
+        if (group == null) {
+            return;
+        }
+        Long previous = group.weights.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        group.total -= previous;
+        if (group.weights.isEmpty()) {
+            delete(group.suggestion);
+            groups.remove(key);
+        } else {
+            regroup(group);
+        }
+    }
+
+    private void regroup(Group group) {
+        if (group.suggestion != null) {
+            delete(group.suggestion);
+        }
+        group.suggestion = new SuggestionResponse(group.type, group.text, null, group.total);
+        insert(group.suggestion);
+    }
+
+    private void insert(SuggestionResponse suggestion) {
+        keys(suggestion.text()).forEach(key -> trie.insert(key, suggestion));
+    }
+
+    private void delete(SuggestionResponse suggestion) {
+        keys(suggestion.text()).forEach(key -> trie.remove(key, suggestion));
+    }
+
+    /**
+     * The normalized text from each of its first {@code maxNameWords} word starts.
+     */
+    private Set<String> keys(String text) {
+        String[] words = normalize(text).split(" ");
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < Math.min(words.length, maxNameWords); i++) {
+            keys.add(String.join(" ", Arrays.copyOfRange(words, i, words.length)));
+        }
+        return keys;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+        return SPACES.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
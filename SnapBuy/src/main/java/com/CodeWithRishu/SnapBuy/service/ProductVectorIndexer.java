@@ -0,0 +1,81 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.DefaultContentFormatter;
+import org.springframework.ai.document.Document;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductVectorIndexer {
+
+    public static final String PRODUCT_ID = "productId";
+    public static final String CONTENT_HASH = "contentHash";
+    public static final String PRICE = "price";
+    public static final String STOCK = "stock";
+    public static final String AVAILABLE = "available";
+
+    private static final DefaultContentFormatter SEMANTIC_ONLY = DefaultContentFormatter.builder()
+            .withExcludedEmbedMetadataKeys(PRODUCT_ID, CONTENT_HASH, PRICE, STOCK, AVAILABLE)
+            .build();
+
+    private final VectorIndexingPipeline pipeline;
+
+    public static String embeddingText(Product product) {
+        return String.format("""
+                        Product Name: %s
+                        Description: %s
+                        Brand: %s
+                        Category: %s
+                        """,
+                product.getName(),
+                product.getDescription(),
+                product.getBrand(),
+                product.getCategory()
+        );
+    }
+
+    public static String semanticHash(Product product) {
+        return CachingEmbeddingModel.contentHash(embeddingText(product));
+    }
+
+    public static String documentId(long productId) {
+        return String.valueOf(productId);
+    }
+
+    public static Document toDocument(Product product) {
+        Document document = new Document(documentId(product.getId()), embeddingText(product), metadata(product));
+        document.setContentFormatter(SEMANTIC_ONLY);
+        return document;
+    }
+
+    public void index(Product product, boolean textChanged) {
+        if (textChanged) {
+            pipeline.upsert(toDocument(product));
+            log.debug("Queued re-embedding for product {}", product.getId());
+        } else {
+            pipeline.updateMetadata(toDocument(product));
+            log.debug("Semantic fields unchanged for product {}, queued metadata refresh only", product.getId());
+        }
+    }
+
+    public void remove(long productId) {
+        pipeline.delete(documentId(productId));
+    }
+
+    private static Map<String, Object> metadata(Product product) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put(PRODUCT_ID, String.valueOf(product.getId()));
+        metadata.put(CONTENT_HASH, semanticHash(product));
+        metadata.put(PRICE, product.getPrice() != null ? product.getPrice().doubleValue() : 0d);
+        metadata.put(STOCK, product.getStockQuantity());
+        metadata.put(AVAILABLE, product.isProductAvailable());
+        return metadata;
+    }
+}
@@ -0,0 +1,292 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderSalesRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.RollupDimension;
+import com.CodeWithRishu.SnapBuy.dto.RollupGranularity;
+import com.CodeWithRishu.SnapBuy.dto.response.RollupBackfillResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.SalesRollupResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.SalesTotalResponse;
+import com.CodeWithRishu.SnapBuy.event.OrderPlacedEvent;
+import com.CodeWithRishu.SnapBuy.event.OrderStatusChangedEvent;
+import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
+import com.CodeWithRishu.SnapBuy.repository.SalesRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hourly and daily sales rollups per product, category and status, kept current from order events so
+ * reporting never scans the order tables. Events are queued after commit and flushed in batches, each
+ * touched rollup row getting one additive upsert per flush; a backfill rebuilds everything from the
+ * orders in keyset chunks.
+ * <p>
+ * While a backfill runs, events for orders it has not reached yet are dropped since it will read their
+ * current state anyway. That fencing is per instance, so backfill while other instances are quiet.
+ */
+@Service
+@Slf4j
+public class SalesAnalyticsService {
+
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+    private static final Comparator<SalesRollupDeltas.Key> WRITE_ORDER = Comparator
+            .comparing(SalesRollupDeltas.Key::granularity)
+            .thenComparing(SalesRollupDeltas.Key::bucketStart)
+            .thenComparing(SalesRollupDeltas.Key::dimension)
+            .thenComparing(SalesRollupDeltas.Key::dimensionKey);
+
+    private record Change(String orderId, OrderStatus from, OrderStatus to) {
+    }
+
+    private final OrderRepository orderRepository;
+    private final SalesRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int backfillChunkSize;
+    private final int maxBuckets;
+    private final int maxResults;
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "sales-rollup-backfill"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<RollupBackfillResponse> lastReport = new AtomicReference<>(
+            new RollupBackfillResponse("IDLE", null, null, 0, null));
+
+    // guarded by writeLock
+    private boolean backfilling;
+    private long backfillCursor;
+
+    public SalesAnalyticsService(OrderRepository orderRepository,
+                                 SalesRollupRepository rollupRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${analytics.backfill-chunk-size:500}") int backfillChunkSize,
+                                 @Value("${analytics.max-buckets:2000}") int maxBuckets,
+                                 @Value("${analytics.max-results:100}") int maxResults) {
+        this.orderRepository = orderRepository;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillChunkSize = backfillChunkSize;
+        this.maxBuckets = maxBuckets;
+        this.maxResults = maxResults;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        // placeOrder always starts orders as PENDING
+        pending.add(new Change(event.orderId(), null, OrderStatus.PENDING));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        pending.add(new Change(event.orderId(), event.previousStatus(), event.status()));
+    }
+
+    /**
+     * Rollup rows of one dimension in {@code [from, to)}, by bucket. PRODUCT series need a key since
+     * the catalog times the bucket count is unbounded.
+     */
+    public List<SalesRollupResponse> series(RollupGranularity granularity, RollupDimension dimension, String key,
+                                            Instant from, Instant to) {
+        checkRange(granularity, from, to);
+        if (dimension == RollupDimension.PRODUCT && (key == null || key.isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A product key is required for product series");
+        }
+        return rollupRepository.findSeries(granularity, dimension, key, granularity.bucketOf(from), to).stream()
+                .map(row -> new SalesRollupResponse(row.getId().getBucketStart(), dimension, row.getId().getDimensionKey(),
+                        row.getOrders(), row.getUnits(), row.getRevenue()))
+                .toList();
+    }
+
+    /**
+     * Dimension values with the most revenue in {@code [from, to)}.
+     */
+    public List<SalesTotalResponse> top(RollupGranularity granularity, RollupDimension dimension,
+                                        Instant from, Instant to, int limit) {
+        checkRange(granularity, from, to);
+        return rollupRepository.findTotals(granularity, dimension, granularity.bucketOf(from), to,
+                PageRequest.of(0, Math.clamp(limit, 1, maxResults)));
+    }
+
+    public RollupBackfillResponse triggerBackfill() {
+        if (running.compareAndSet(false, true)) {
+            lastReport.set(new RollupBackfillResponse("RUNNING", Instant.now(), null, 0, null));
+            jobExecutor.execute(this::runGuarded);
+        }
+        return lastReport.get();
+    }
+
+    public RollupBackfillResponse backfillStatus() {
+        return lastReport.get();
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.flush-interval-ms:5000}")
+    public void flush() {
+        writeLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Applies queued changes. Deltas add up in any order, so a failed flush simply queues its changes
+     * again for the next one.
+     */
+    private void flushLocked() {
+        List<Change> changes = new ArrayList<>();
+        Change change;
+        while ((change = pending.poll()) != null) {
+            changes.add(change);
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, List<OrderSalesRow>> orders = loadOrders(changes);
+            SalesRollupDeltas deltas = new SalesRollupDeltas();
+            int skipped = 0;
+            for (Change c : changes) {
+                List<OrderSalesRow> lines = orders.get(c.orderId());
+                if (lines == null) {
+                    continue;
+                }
+                if (backfilling && lines.getFirst().id() > backfillCursor) {
+                    skipped++;
+                    continue;
+                }
+                deltas.add(lines, c.from(), -1);
+                deltas.add(lines, c.to(), 1);
+            }
+            int written = write(deltas);
+            log.debug("Flushed {} order changes into {} sales rollup rows ({} left to the backfill)",
+                    changes.size(), written, skipped);
+        } catch (RuntimeException e) {
+            pending.addAll(changes);
+            log.warn("Sales rollup flush of {} order changes failed, will retry", changes.size(), e);
+        }
+    }
+
+    private Map<String, List<OrderSalesRow>> loadOrders(List<Change> changes) {
+        List<String> orderIds = new ArrayList<>(new LinkedHashSet<>(changes.stream().map(Change::orderId).toList()));
+        Map<String, List<OrderSalesRow>> orders = new HashMap<>();
+        for (int from = 0; from < orderIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = orderIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, orderIds.size()));
+            orders.putAll(SalesRollupDeltas.byOrder(orderRepository.findSalesLinesByOrderIds(chunk)));
+        }
+        return orders;
+    }
+
+    /**
+     * Upserts in key order so concurrent writers lock shared rows in the same order.
+     */
+    private int write(SalesRollupDeltas deltas) {
+        List<Map.Entry<SalesRollupDeltas.Key, SalesRollupDeltas.Delta>> rows = new ArrayList<>(deltas.nonZero().entrySet());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        rows.sort(Map.Entry.comparingByKey(WRITE_ORDER));
+        transactionTemplate.executeWithoutResult(status -> rows.forEach(row -> rollupRepository.add(
+                row.getKey().granularity().name(), row.getKey().bucketStart(), row.getKey().dimension().name(),
+                row.getKey().dimensionKey(), row.getValue().orders, row.getValue().units, row.getValue().revenue)));
+        return rows.size();
+    }
+
+    private void runGuarded() {
+        Instant startedAt = lastReport.get().startedAt();
+        long processed = 0;
+        try {
+            writeLock.lock();
+            try {
+                flushLocked();
+                transactionTemplate.executeWithoutResult(status -> rollupRepository.deleteAllInBatch());
+                backfilling = true;
+                backfillCursor = 0;
+            } finally {
+                writeLock.unlock();
+            }
+
+            int chunkSize;
+            while ((chunkSize = backfillChunk()) > 0) {
+                processed += chunkSize;
+                lastReport.set(new RollupBackfillResponse("RUNNING", startedAt, null, processed, null));
+            }
+            lastReport.set(new RollupBackfillResponse("COMPLETED", startedAt, Instant.now(), processed, null));
+            log.info("Sales rollup backfill finished after {} orders", processed);
+        } catch (Exception e) {
+            log.error("Sales rollup backfill failed", e);
+            lastReport.set(new RollupBackfillResponse("FAILED", startedAt, Instant.now(), processed, e.getMessage()));
+        } finally {
+            writeLock.lock();
+            try {
+                backfilling = false;
+            } finally {
+                writeLock.unlock();
+            }
+            running.set(false);
+        }
+    }
+
+    /**
+     * Rolls up the next chunk of orders by id, returning how many there were. Queued changes are
+     * flushed first so each one is either applied or left to this chunk's read, never both.
+     */
+    private int backfillChunk() {
+        writeLock.lock();
+        try {
+            flushLocked();
+            List<Long> ids = orderRepository.findIdsAfter(backfillCursor, PageRequest.of(0, backfillChunkSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            SalesRollupDeltas deltas = new SalesRollupDeltas();
+            SalesRollupDeltas.byOrder(orderRepository.findSalesLines(ids))
+                    .values().forEach(lines -> deltas.add(lines, lines.getFirst().status(), 1));
+            write(deltas);
+            backfillCursor = ids.getLast();
+            return ids.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void checkRange(RollupGranularity granularity, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must be before 'to'");
+        }
+        if (Duration.between(from, to).dividedBy(granularity.length()) > maxBuckets) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Range spans more than " + maxBuckets + " " + granularity.name().toLowerCase(Locale.ROOT) + " buckets");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderSalesRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.RollupDimension;
+import com.CodeWithRishu.SnapBuy.dto.RollupGranularity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Coalesces the rollup changes of many orders so each touched row is written once. An order counts
+ * towards its STATUS row whatever that status is, and towards TOTAL, PRODUCT and CATEGORY only while
+ * it is not cancelled or returned; a status change is the new status's contribution minus the old one's.
+ */
+final class SalesRollupDeltas {
+
+    static final String TOTAL_KEY = "all";
+    static final Set<OrderStatus> NOT_SALES = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.RETURNED);
+
+    record Key(RollupGranularity granularity, Instant bucketStart, RollupDimension dimension, String dimensionKey) {
+    }
+
+    static final class Delta {
+        long orders;
+        long units;
+        BigDecimal revenue = BigDecimal.ZERO;
+
+        boolean isZero() {
+            return orders == 0 && units == 0 && revenue.signum() == 0;
+        }
+    }
+
+    private final Map<Key, Delta> deltas = new HashMap<>();
+
+    /**
+     * Adds ({@code sign} 1) or takes away ({@code sign} -1) the contribution of one order, given as its
+     * lines, while in {@code status}.
+     */
+    void add(List<OrderSalesRow> lines, OrderStatus status, int sign) {
+        if (lines.isEmpty() || status == null) {
+            return;
+        }
+        Instant placedAt = lines.getFirst().createdAt();
+        long units = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (OrderSalesRow line : lines) {
+            units += line.quantity();
+            revenue = revenue.add(line.totalPrice());
+        }
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Instant bucket = granularity.bucketOf(placedAt);
+            bump(new Key(granularity, bucket, RollupDimension.STATUS, status.name()), sign, units, revenue);
+            if (NOT_SALES.contains(status)) {
+                continue;
+            }
+            bump(new Key(granularity, bucket, RollupDimension.TOTAL, TOTAL_KEY), sign, units, revenue);
+
+            // an order counts once per product and category however many lines it has for them
+            Map<Key, Delta> perOrder = new HashMap<>();
+            for (OrderSalesRow line : lines) {
+                if (line.productId() != null) {
+                    collect(perOrder, new Key(granularity, bucket, RollupDimension.PRODUCT, line.productId().toString()), line);
+                }
+                if (line.category() != null && !line.category().isBlank()) {
+                    collect(perOrder, new Key(granularity, bucket, RollupDimension.CATEGORY, line.category().trim()), line);
+                }
+            }
+            perOrder.forEach((key, delta) -> bump(key, sign, delta.units, delta.revenue));
+        }
+    }
+
+    Map<Key, Delta> nonZero() {
+        deltas.values().removeIf(Delta::isZero);
+        return deltas;
+    }
+
+    boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    private void bump(Key key, int sign, long units, BigDecimal revenue) {
+        Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+        delta.orders += sign;
+        delta.units += sign * units;
+        delta.revenue = sign > 0 ? delta.revenue.add(revenue) : delta.revenue.subtract(revenue);
+    }
+
+    private static void collect(Map<Key, Delta> perOrder, Key key, OrderSalesRow line) {
+        Delta delta = perOrder.computeIfAbsent(key, k -> new Delta());
+        delta.units += line.quantity();
+        delta.revenue = delta.revenue.add(line.totalPrice());
+    }
+
+    /**
+     * Groups query rows into one list of lines per order id.
+     */
+    static Map<String, List<OrderSalesRow>> byOrder(List<OrderSalesRow> rows) {
+        Map<String, List<OrderSalesRow>> orders = new HashMap<>();
+        for (OrderSalesRow row : rows) {
+            orders.computeIfAbsent(row.orderId(), id -> new ArrayList<>()).add(row);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,239 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.ShardTotalRow;
+import com.CodeWithRishu.SnapBuy.dto.response.StockShardResponse;
+import com.CodeWithRishu.SnapBuy.entity.ProductStockShard;
+import com.CodeWithRishu.SnapBuy.exception.ResourceNotFoundException;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import com.CodeWithRishu.SnapBuy.repository.ProductStockShardRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional sharded stock for flash-sale products. A sharded product's stock lives in N rows of
+ * {@code product_stock_shards}; each sale decrements one randomly chosen shard, so concurrent checkouts
+ * contend on different rows instead of serializing on the product row. When no single shard can cover
+ * a sale the shards are locked and rebalanced. {@code Product.stockQuantity} becomes a cached sum that
+ * is written back periodically.
+ * <p>
+ * Shards are only ever read and written with queries, never through managed entities, so a rebalance
+ * in the same transaction as an earlier bulk decrement sees and keeps that decrement.
+ */
+@Service
+@Slf4j
+public class ShardedStockService {
+
+    private static final int MAX_SHARDS = 64;
+
+    private final ProductStockShardRepository shardRepository;
+    private final ProductRepository productRepository;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultShards;
+
+    private final Map<Long, AtomicInteger> totals = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> syncedTotals = new ConcurrentHashMap<>();
+
+    public ShardedStockService(ProductStockShardRepository shardRepository,
+                               ProductRepository productRepository,
+                               CatalogFacetIndex catalogFacetIndex,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${inventory.sharding.default-shards:8}") int defaultShards) {
+        this.shardRepository = shardRepository;
+        this.productRepository = productRepository;
+        this.catalogFacetIndex = catalogFacetIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultShards = defaultShards;
+    }
+
+    @PostConstruct
+    void loadTotals() {
+        List<ShardTotalRow> rows = shardRepository.sumByProduct();
+        for (ShardTotalRow row : rows) {
+            totals.put(row.productId(), new AtomicInteger((int) row.quantity()));
+            shardCounts.put(row.productId(), (int) row.shards());
+            syncedTotals.put(row.productId(), (int) row.quantity());
+        }
+        log.info("Loaded sharded stock for {} products", rows.size());
+    }
+
+    public boolean isSharded(long productId) {
+        return shardCounts.containsKey(productId);
+    }
+
+    /**
+     * Current stock of a sharded product, or {@code stockQuantity} when the product is not sharded.
+     */
+    public int totalStock(long productId, int stockQuantity) {
+        AtomicInteger total = totals.get(productId);
+        return total != null ? total.get() : stockQuantity;
+    }
+
+    /**
+     * Splits the product's stock across {@code shards} rows, or re-splits it if already sharded.
+     */
+    public StockShardResponse enable(long productId, Integer shards) {
+        int shardCount = shards != null ? shards : defaultShards;
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Shard count must be between 1 and " + MAX_SHARDS);
+        }
+
+        int stock = transactionTemplate.execute(status -> {
+            // the product row lock keeps unsharded sales out while stock moves into the shards
+            int current = productRepository.lockStockQuantity(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
+            List<Integer> existing = shardRepository.lockQuantities(productId);
+            if (!existing.isEmpty()) {
+                current = sum(existing);
+                shardRepository.deleteByProductId(productId);
+                shardRepository.flush();
+            }
+            List<ProductStockShard> created = new ArrayList<>(shardCount);
+            int[] split = split(current, shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                created.add(ProductStockShard.builder().productId(productId).shardIndex(i).quantity(split[i]).build());
+            }
+            shardRepository.saveAll(created);
+            productRepository.updateStockQuantity(productId, current);
+            return current;
+        });
+
+        totals.put(productId, new AtomicInteger(stock));
+        shardCounts.put(productId, shardCount);
+        syncedTotals.put(productId, stock);
+        log.info("Sharded stock of product {} into {} shards ({} units)", productId, shardCount, stock);
+        return new StockShardResponse(productId, shardCount, stock);
+    }
+
+    /**
+     * Folds the shards back into {@code Product.stockQuantity}.
+     */
+    public StockShardResponse disable(long productId) {
+        int stock = transactionTemplate.execute(status -> {
+            List<Integer> existing = shardRepository.lockQuantities(productId);
+            if (existing.isEmpty()) {
+                throw new ResourceNotFoundException("Product " + productId + " has no stock shards");
+            }
+            int sum = sum(existing);
+            productRepository.updateStockQuantity(productId, sum);
+            shardRepository.deleteByProductId(productId);
+            return sum;
+        });
+
+        shardCounts.remove(productId);
+        totals.remove(productId);
+        syncedTotals.remove(productId);
+        log.info("Merged stock shards of product {} back into the product row ({} units)", productId, stock);
+        return new StockShardResponse(productId, 1, stock);
+    }
+
+    /**
+     * Replaces the stock of a sharded product, e.g. after an admin edit, spreading it evenly again.
+     */
+    public void resetStock(long productId, int stockQuantity) {
+        transactionTemplate.executeWithoutResult(status ->
+                spread(productId, stockQuantity, shardRepository.lockQuantities(productId).size()));
+        AtomicInteger total = totals.get(productId);
+        if (total != null) {
+            total.set(stockQuantity);
+        }
+        syncedTotals.put(productId, stockQuantity);
+    }
+
+    /**
+     * Takes {@code quantity} units from a sharded product. Must run inside a transaction;
+     * the cached total drops when it commits.
+     *
+     * @return false if the shards together hold less than {@code quantity}
+     */
+    public boolean decrement(long productId, int quantity) {
+        int shards = shardCounts.getOrDefault(productId, 0);
+        if (shards == 0) {
+            // merged back while the sale was in flight
+            return productRepository.decrementStock(productId, quantity) == 1;
+        }
+
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            if (shardRepository.decrementShard(productId, (start + i) % shards, quantity) == 1) {
+                TransactionCallbacks.afterCommit(() -> dropTotal(productId, quantity));
+                return true;
+            }
+        }
+
+        if (!rebalanceAndTake(productId, quantity)) {
+            return false;
+        }
+        TransactionCallbacks.afterCommit(() -> dropTotal(productId, quantity));
+        return true;
+    }
+
+    /**
+     * Writes the cached totals of sharded products back to {@code Product.stockQuantity} so catalog reads
+     * stay close to the real stock without every sale touching the product row. Stock is not part of the
+     * versioned catalog, so this never moves {@link CatalogVersion}.
+     */
+    @Scheduled(fixedDelayString = "${inventory.sharding.sync-interval-ms:5000}")
+    public void syncProductTotals() {
+        totals.forEach((productId, total) -> {
+            int current = total.get();
+            if (!Integer.valueOf(current).equals(syncedTotals.get(productId))) {
+                transactionTemplate.executeWithoutResult(status -> productRepository.updateStockQuantity(productId, current));
+                syncedTotals.put(productId, current);
+                catalogFacetIndex.updateStock(productId, current);
+            }
+        });
+    }
+
+    private boolean rebalanceAndTake(long productId, int quantity) {
+        List<Integer> existing = shardRepository.lockQuantities(productId);
+        int sum = sum(existing);
+        if (sum < quantity) {
+            return false;
+        }
+        spread(productId, sum - quantity, existing.size());
+        log.debug("Rebalanced {} stock shards of product {} ({} units left)", existing.size(), productId, sum - quantity);
+        return true;
+    }
+
+    private void dropTotal(long productId, int quantity) {
+        AtomicInteger total = totals.get(productId);
+        if (total != null) {
+            total.addAndGet(-quantity);
+        }
+    }
+
+    private void spread(long productId, int quantity, int shards) {
+        int[] split = split(quantity, shards);
+        for (int i = 0; i < shards; i++) {
+            shardRepository.setShard(productId, i, split[i]);
+        }
+    }
+
+    private static int sum(List<Integer> quantities) {
+        return quantities.stream().mapToInt(Integer::intValue).sum();
+    }
+
+    static int[] split(int quantity, int shards) {
+        int[] split = new int[shards];
+        for (int i = 0; i < shards; i++) {
+            split[i] = quantity / shards + (i < quantity % shards ? 1 : 0);
+        }
+        return split;
+    }
+}
@@ -0,0 +1,215 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.config.VectorIndexProp;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@Slf4j
+public class VectorIndexingPipeline {
+
+    private final VectorStore vectorStore;
+    private final VectorIndexProp prop;
+    private final String collectionName;
+    private final Map<String, PendingOperation> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Executor flushExecutor;
+
+    // guarded by flushLock
+    private int consecutiveFailures;
+    private long nextAttemptAt;
+
+    @Autowired
+    public VectorIndexingPipeline(VectorStore vectorStore,
+                                  VectorIndexProp prop,
+                                  @Value("${spring.ai.vectorstore.mongodb.collection-name:vector_store}") String collectionName) {
+        this(vectorStore, prop, collectionName, Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "vector-index-flush");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    VectorIndexingPipeline(VectorStore vectorStore, VectorIndexProp prop, String collectionName, Executor flushExecutor) {
+        this.vectorStore = vectorStore;
+        this.prop = prop;
+        this.collectionName = collectionName;
+        this.flushExecutor = flushExecutor;
+    }
+
+    public void upsert(Document document) {
+        enqueue(new PendingOperation(OperationType.UPSERT, document.getId(), document, 0));
+    }
+
+    public void updateMetadata(Document document) {
+        enqueue(new PendingOperation(OperationType.METADATA, document.getId(), document, 0));
+    }
+
+    public void delete(String documentId) {
+        enqueue(new PendingOperation(OperationType.DELETE, documentId, null, 0));
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void enqueue(PendingOperation operation) {
+        pending.merge(operation.id(), operation, PendingOperation::coalesce);
+
+        if (pending.size() >= prop.getBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Drains the queue batch by batch. After a failed batch the rest waits for a later tick, with the
+     * wait doubling per consecutive failure, so a vector store outage never spins the scheduler thread.
+     */
+    @Scheduled(fixedDelayString = "${vector-index.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            if (System.currentTimeMillis() < nextAttemptAt) {
+                return;
+            }
+            while (!pending.isEmpty()) {
+                if (!flushBatch(drain(prop.getBatchSize()))) {
+                    consecutiveFailures++;
+                    long backoff = Math.min(prop.getRetryMaxBackoffMs(),
+                            prop.getRetryBackoffMs() << Math.min(consecutiveFailures - 1, 20));
+                    nextAttemptAt = System.currentTimeMillis() + backoff;
+                    log.warn("Vector index flush paused for {} ms after {} consecutive failures", backoff, consecutiveFailures);
+                    return;
+                }
+                consecutiveFailures = 0;
+                nextAttemptAt = 0;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+        flush();
+    }
+
+    private List<PendingOperation> drain(int limit) {
+        List<PendingOperation> batch = new ArrayList<>(limit);
+        for (PendingOperation operation : pending.values()) {
+            if (batch.size() == limit) {
+                break;
+            }
+            if (pending.remove(operation.id(), operation)) {
+                batch.add(operation);
+            }
+        }
+        return batch;
+    }
+
+    private boolean flushBatch(List<PendingOperation> batch) {
+        List<String> deletes = new ArrayList<>();
+        List<Document> upserts = new ArrayList<>();
+
+        try {
+            for (PendingOperation operation : batch) {
+                switch (operation.type()) {
+                    case DELETE -> deletes.add(operation.id());
+                    case UPSERT -> upserts.add(operation.document());
+                    case METADATA -> {
+                        if (!updateMetadataInPlace(operation.document())) {
+                            upserts.add(operation.document());
+                        }
+                    }
+                }
+            }
+            if (!deletes.isEmpty()) {
+                vectorStore.delete(deletes);
+            }
+            if (!upserts.isEmpty()) {
+                vectorStore.add(upserts);
+            }
+            log.info("Flushed vector index batch: {} upserts, {} deletes", upserts.size(), deletes.size());
+            return true;
+        } catch (Exception e) {
+            int requeued = 0;
+            for (PendingOperation operation : batch) {
+                if (operation.attempts() + 1 >= prop.getRetryMaxAttempts()) {
+                    // left for the nightly reconciliation to repair
+                    log.error("Giving up on vector index {} of {} after {} attempts", operation.type(), operation.id(),
+                            operation.attempts() + 1);
+                } else if (pending.putIfAbsent(operation.id(), operation.retried()) == null) {
+                    requeued++;
+                }
+            }
+            log.error("Vector index flush failed, re-queued {} of {} operations", requeued, batch.size(), e);
+            return false;
+        }
+    }
+
+    private boolean updateMetadataInPlace(Document document) {
+        Optional<Object> nativeClient = vectorStore.getNativeClient();
+        if (!(nativeClient.orElse(null) instanceof MongoTemplate mongoTemplate)) {
+            return false;
+        }
+
+        Update update = new Update();
+        document.getMetadata().forEach((key, value) -> update.set("metadata." + key, value));
+
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(document.getId())),
+                update,
+                collectionName
+        ).getMatchedCount() > 0;
+    }
+
+    enum OperationType {
+        UPSERT,
+        METADATA,
+        DELETE
+    }
+
+    record PendingOperation(OperationType type, String id, Document document, int attempts) {
+
+        static PendingOperation coalesce(PendingOperation previous, PendingOperation next) {
+            if (previous.type() == OperationType.UPSERT && next.type() == OperationType.METADATA) {
+                return new PendingOperation(OperationType.UPSERT, next.id(), next.document(), next.attempts());
+            }
+            return next;
+        }
+
+        PendingOperation retried() {
+            return new PendingOperation(type, id, document, attempts + 1);
+        }
+    }
+}
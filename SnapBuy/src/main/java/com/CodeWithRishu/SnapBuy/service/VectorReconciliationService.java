@@ -0,0 +1,261 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.config.VectorIndexProp;
+import com.CodeWithRishu.SnapBuy.dto.ProductIndexRow;
+import com.CodeWithRishu.SnapBuy.dto.response.ReconciliationResponse;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class VectorReconciliationService {
+
+    private final ProductRepository productRepository;
+    private final VectorStore vectorStore;
+    private final VectorIndexingPipeline pipeline;
+    private final VectorIndexProp prop;
+    private final String collectionName;
+    private final ExecutorService embedExecutor;
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "vector-reconcile"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<ReconciliationResponse> lastReport = new AtomicReference<>(
+            new ReconciliationResponse("IDLE", null, null, 0, 0, 0, 0, 0, 0, null));
+
+    public VectorReconciliationService(ProductRepository productRepository,
+                                       VectorStore vectorStore,
+                                       VectorIndexingPipeline pipeline,
+                                       VectorIndexProp prop,
+                                       @Value("${spring.ai.vectorstore.mongodb.collection-name:vector_store}") String collectionName) {
+        this.productRepository = productRepository;
+        this.vectorStore = vectorStore;
+        this.pipeline = pipeline;
+        this.prop = prop;
+        this.collectionName = collectionName;
+        this.embedExecutor = Executors.newFixedThreadPool(prop.getReconcileParallelism(), r -> new Thread(r, "vector-reconcile-embed"));
+    }
+
+    public ReconciliationResponse trigger() {
+        if (running.compareAndSet(false, true)) {
+            lastReport.set(new ReconciliationResponse("RUNNING", Instant.now(), null, 0, 0, 0, 0, 0, 0, null));
+            jobExecutor.execute(this::runGuarded);
+        }
+        return lastReport.get();
+    }
+
+    public ReconciliationResponse status() {
+        return lastReport.get();
+    }
+
+    @Scheduled(cron = "${vector-index.reconcile-cron:0 0 3 * * *}")
+    public void scheduledReconcile() {
+        log.info("Starting scheduled vector-store reconciliation");
+        trigger();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        embedExecutor.shutdownNow();
+    }
+
+    private void runGuarded() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Vector-store reconciliation failed", e);
+            ReconciliationResponse current = lastReport.get();
+            lastReport.set(new ReconciliationResponse("FAILED", current.startedAt(), Instant.now(), current.scanned(),
+                    current.reembedded(), current.metadataUpdated(), current.duplicatesRemoved(), current.orphansRemoved(),
+                    current.productsPerSecond(), e.getMessage()));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void reconcile() throws InterruptedException {
+        Instant startedAt = Instant.now();
+        Progress progress = new Progress();
+        Semaphore inFlight = new Semaphore(prop.getReconcileParallelism());
+        List<CompletableFuture<Void>> embeddings = new ArrayList<>();
+        Set<String> seenProductIds = new HashSet<>();
+        long afterId = 0;
+
+        while (true) {
+            List<ProductIndexRow> chunk = productRepository.findIndexRowsAfter(afterId, PageRequest.of(0, prop.getReconcileChunkSize()));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            afterId = chunk.getLast().id();
+
+            List<String> productIds = chunk.stream().map(row -> String.valueOf(row.id())).toList();
+            seenProductIds.addAll(productIds);
+            Map<String, List<Document>> indexed = loadIndexedDocuments(productIds);
+            List<Document> toEmbed = new ArrayList<>();
+
+            for (ProductIndexRow row : chunk) {
+                diff(row.toProduct(), indexed.getOrDefault(String.valueOf(row.id()), List.of()), toEmbed, progress);
+            }
+
+            for (int from = 0; from < toEmbed.size(); from += prop.getBatchSize()) {
+                List<Document> batch = List.copyOf(toEmbed.subList(from, Math.min(from + prop.getBatchSize(), toEmbed.size())));
+                inFlight.acquire();
+                embeddings.add(CompletableFuture.runAsync(() -> vectorStore.add(batch), embedExecutor)
+                        .whenComplete((ignored, error) -> inFlight.release()));
+            }
+
+            progress.scanned.addAndGet(chunk.size());
+            lastReport.set(progress.report("RUNNING", startedAt, null));
+            log.info("Reconciled {} products so far ({} re-embedded, {} metadata updates, {} duplicates removed)",
+                    progress.scanned.get(), progress.reembedded.get(), progress.metadataUpdated.get(), progress.duplicatesRemoved.get());
+        }
+
+        CompletableFuture.allOf(embeddings.toArray(CompletableFuture[]::new)).join();
+        removeOrphans(seenProductIds, progress);
+        pipeline.flush();
+
+        ReconciliationResponse report = progress.report("COMPLETED", startedAt, Instant.now());
+        lastReport.set(report);
+        log.info("Vector-store reconciliation finished: {} products in {} ms ({} products/s)",
+                report.scanned(), Duration.between(startedAt, report.finishedAt()).toMillis(), String.format("%.1f", report.productsPerSecond()));
+    }
+
+    private void diff(Product product, List<Document> indexedCopies, List<Document> toEmbed, Progress progress) {
+        String canonicalId = ProductVectorIndexer.documentId(product.getId());
+        String semanticHash = ProductVectorIndexer.semanticHash(product);
+        Document expected = ProductVectorIndexer.toDocument(product);
+        Document canonical = null;
+
+        for (Document copy : indexedCopies) {
+            if (copy.getId().equals(canonicalId)) {
+                canonical = copy;
+            } else {
+                pipeline.delete(copy.getId());
+                progress.duplicatesRemoved.incrementAndGet();
+            }
+        }
+
+        if (canonical == null || !semanticHash.equals(canonical.getMetadata().get(ProductVectorIndexer.CONTENT_HASH))) {
+            toEmbed.add(expected);
+            progress.reembedded.incrementAndGet();
+        } else if (!sameMetadata(canonical.getMetadata(), expected.getMetadata())) {
+            pipeline.updateMetadata(expected);
+            progress.metadataUpdated.incrementAndGet();
+        }
+
+        if (!semanticHash.equals(product.getEmbeddingHash())) {
+            productRepository.updateEmbeddingHash(product.getId(), semanticHash);
+        }
+    }
+
+    private boolean sameMetadata(Map<String, Object> indexed, Map<String, Object> expected) {
+        return numericEquals(indexed.get(ProductVectorIndexer.PRICE), expected.get(ProductVectorIndexer.PRICE))
+                && numericEquals(indexed.get(ProductVectorIndexer.STOCK), expected.get(ProductVectorIndexer.STOCK))
+                && Objects.equals(indexed.get(ProductVectorIndexer.AVAILABLE), expected.get(ProductVectorIndexer.AVAILABLE));
+    }
+
+    private boolean numericEquals(Object left, Object right) {
+        if (left instanceof Number l && right instanceof Number r) {
+            return Double.compare(l.doubleValue(), r.doubleValue()) == 0;
+        }
+        return Objects.equals(left, right);
+    }
+
+    private Map<String, List<Document>> loadIndexedDocuments(List<String> productIds) {
+        Optional<MongoTemplate> mongoTemplate = mongoTemplate();
+        if (mongoTemplate.isPresent()) {
+            Query query = Query.query(Criteria.where("metadata." + ProductVectorIndexer.PRODUCT_ID).in(productIds));
+            query.fields().include("_id").include("content").include("metadata");
+            return mongoTemplate.get().find(query, org.bson.Document.class, collectionName).stream()
+                    .map(raw -> new Document(
+                            String.valueOf(raw.get("_id")),
+                            Objects.requireNonNullElse(raw.getString("content"), ""),
+                            new HashMap<>(raw.get("metadata", org.bson.Document.class))))
+                    .collect(Collectors.groupingBy(doc -> String.valueOf(doc.getMetadata().get(ProductVectorIndexer.PRODUCT_ID))));
+        }
+
+        Set<String> wanted = new HashSet<>(productIds);
+        return localStore().scan(values -> wanted.contains(String.valueOf(values.get(ProductVectorIndexer.PRODUCT_ID)))).stream()
+                .collect(Collectors.groupingBy(doc -> String.valueOf(doc.getMetadata().get(ProductVectorIndexer.PRODUCT_ID))));
+    }
+
+    private void removeOrphans(Set<String> seenProductIds, Progress progress) {
+        Optional<MongoTemplate> mongoTemplate = mongoTemplate();
+        List<String> orphanIds;
+        if (mongoTemplate.isPresent()) {
+            Query query = Query.query(Criteria.where("metadata." + ProductVectorIndexer.PRODUCT_ID).exists(true)
+                    .andOperator(Criteria.where("metadata." + ProductVectorIndexer.PRODUCT_ID).nin(seenProductIds)));
+            query.fields().include("_id");
+            orphanIds = mongoTemplate.get().find(query, org.bson.Document.class, collectionName).stream()
+                    .map(raw -> String.valueOf(raw.get("_id")))
+                    .toList();
+        } else {
+            orphanIds = localStore().scan(values -> values.containsKey(ProductVectorIndexer.PRODUCT_ID)
+                            && !seenProductIds.contains(String.valueOf(values.get(ProductVectorIndexer.PRODUCT_ID)))).stream()
+                    .map(Document::getId)
+                    .toList();
+        }
+        orphanIds.forEach(id -> {
+            pipeline.delete(id);
+            progress.orphansRemoved.incrementAndGet();
+        });
+    }
+
+    // listing by metadata needs a store that can be read without a similarity query
+    private LocalHnswVectorStore localStore() {
+        if (vectorStore instanceof LocalHnswVectorStore local) {
+            return local;
+        }
+        throw new IllegalStateException("Reconciliation needs the MongoDB or the local HNSW vector store, not "
+                + vectorStore.getName());
+    }
+
+    private Optional<MongoTemplate> mongoTemplate() {
+        Optional<Object> nativeClient = vectorStore.getNativeClient();
+        return nativeClient.filter(MongoTemplate.class::isInstance).map(MongoTemplate.class::cast);
+    }
+
+    private static class Progress {
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong reembedded = new AtomicLong();
+        private final AtomicLong metadataUpdated = new AtomicLong();
+        private final AtomicLong duplicatesRemoved = new AtomicLong();
+        private final AtomicLong orphansRemoved = new AtomicLong();
+
+        private ReconciliationResponse report(String status, Instant startedAt, Instant finishedAt) {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000d;
+            return new ReconciliationResponse(status, startedAt, finishedAt, scanned.get(), reembedded.get(),
+                    metadataUpdated.get(), duplicatesRemoved.get(), orphansRemoved.get(), scanned.get() / seconds, null);
+        }
+    }
+}
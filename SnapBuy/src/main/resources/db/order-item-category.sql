@@ -0,0 +1,8 @@
+-- Copies each product's current category onto the order lines placed before order_item.category existed.
+-- Sales rollups and popularity read the category from the line, so run this once after deploying and
+-- before the next rollup backfill. Lines whose product is gone keep a NULL category. Safe to re-run.
+
+UPDATE order_item i
+JOIN product p ON p.id = i.product_id
+SET i.category = p.category
+WHERE i.category IS NULL;
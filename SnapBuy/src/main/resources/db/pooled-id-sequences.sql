@@ -0,0 +1,34 @@
+-- Moves entity ids from AUTO_INCREMENT to Hibernate pooled sequences (allocationSize = 50).
+-- MySQL has no native sequences, so Hibernate keeps each one in a single-row <table>_seq table.
+-- Run once before deploying the sequence-generated entities; with ddl-auto=update Hibernate would
+-- otherwise create these tables itself and start handing out ids from 1.
+-- Each sequence starts one allocation block past the current max id, because the pooled optimizer
+-- hands out the block that ends at the stored value. Safe to re-run.
+
+CREATE TABLE IF NOT EXISTS product_seq (next_val BIGINT);
+INSERT INTO product_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM product WHERE NOT EXISTS (SELECT 1 FROM product_seq);
+
+CREATE TABLE IF NOT EXISTS orders_seq (next_val BIGINT);
+INSERT INTO orders_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM orders WHERE NOT EXISTS (SELECT 1 FROM orders_seq);
+
+CREATE TABLE IF NOT EXISTS order_item_seq (next_val BIGINT);
+INSERT INTO order_item_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM order_item WHERE NOT EXISTS (SELECT 1 FROM order_item_seq);
+
+CREATE TABLE IF NOT EXISTS users_seq (next_val BIGINT);
+INSERT INTO users_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM users WHERE NOT EXISTS (SELECT 1 FROM users_seq);
+
+CREATE TABLE IF NOT EXISTS otp_verifications_seq (next_val BIGINT);
+INSERT INTO otp_verifications_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM otp_verifications WHERE NOT EXISTS (SELECT 1 FROM otp_verifications_seq);
+
+CREATE TABLE IF NOT EXISTS inventory_reservations_seq (next_val BIGINT);
+INSERT INTO inventory_reservations_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM inventory_reservations WHERE NOT EXISTS (SELECT 1 FROM inventory_reservations_seq);
+
+CREATE TABLE IF NOT EXISTS cart_items_seq (next_val BIGINT);
+INSERT INTO cart_items_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM cart_items WHERE NOT EXISTS (SELECT 1 FROM cart_items_seq);
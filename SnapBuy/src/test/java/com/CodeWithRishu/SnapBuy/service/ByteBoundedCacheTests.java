@@ -0,0 +1,75 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteBoundedCacheTests {
+
+    @Test
+    void evictsLeastRecentlyUsedByTotalBytes() {
+        ByteBoundedCache<byte[]> cache = new ByteBoundedCache<>(250, value -> value.length, (value, previous) -> true);
+        cache.put("a", new byte[100]);
+        cache.put("b", new byte[100]);
+        cache.get("a");
+        cache.put("c", new byte[100]);
+        cache.put("huge", new byte[300]);
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("huge")).isNull();
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.bytes()).isEqualTo(200);
+    }
+
+    @Test
+    void olderValueDoesNotReplaceNewerOne() {
+        ByteBoundedCache<Long> cache = new ByteBoundedCache<>(100, value -> 1, (value, previous) -> value >= previous);
+        cache.put("listing", 2L);
+        cache.put("listing", 1L);
+
+        assertThat(cache.get("listing")).isEqualTo(2L);
+        assertThat(cache.getOrLoad("listing", value -> value == 3L, () -> 3L)).isEqualTo(3L);
+        assertThat(cache.bytes()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        ByteBoundedCache<String> cache = new ByteBoundedCache<>(100, String::length, (value, previous) -> true);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache.getOrLoad("k", value -> true, () -> {
+                loads.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "value";
+            }));
+            while (loads.get() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<String> second = executor.submit(() -> cache.getOrLoad("k", value -> true, () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
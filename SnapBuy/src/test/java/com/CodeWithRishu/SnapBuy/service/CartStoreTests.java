@@ -0,0 +1,80 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.entity.CartItem;
+import com.CodeWithRishu.SnapBuy.repository.CartItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartStoreTests {
+
+    private CartItemRepository repository;
+    private CartStore cartStore;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CartItemRepository.class);
+        when(repository.findByUserEmailOrderById("buyer@snapbuy.test")).thenReturn(List.of(
+                CartItem.builder().userEmail("buyer@snapbuy.test").productId(7).quantity(1).build()));
+        cartStore = new CartStore(repository, mock(PlatformTransactionManager.class), 1_800_000);
+    }
+
+    @Test
+    void editsStayInMemoryUntilFlush() {
+        IntStream.range(0, 20).forEach(i -> cartStore.add("buyer@snapbuy.test", 7, 1));
+        cartStore.setQuantity("buyer@snapbuy.test", 9, 2);
+
+        assertThat(cartStore.items("buyer@snapbuy.test")).containsExactly(Map.entry(7L, 21), Map.entry(9L, 2));
+        verify(repository, times(1)).findByUserEmailOrderById("buyer@snapbuy.test");
+        verify(repository, never()).saveAll(any());
+        assertThat(cartStore.dirtyCount()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushWritesLatestSnapshotOfEveryDirtyCartInOneBatch() {
+        cartStore.add("buyer@snapbuy.test", 9, 3);
+        cartStore.add("other@snapbuy.test", 4, 1);
+        cartStore.setQuantity("buyer@snapbuy.test", 7, 0);
+
+        cartStore.flush();
+
+        ArgumentCaptor<List<CartItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).deleteByUserEmails(anyCollection());
+        verify(repository, times(1)).saveAll(saved.capture());
+        Set<String> rows = saved.getValue().stream()
+                .map(item -> item.getUserEmail() + ":" + item.getProductId() + "x" + item.getQuantity())
+                .collect(Collectors.toSet());
+        assertThat(rows).containsExactlyInAnyOrder("buyer@snapbuy.test:9x3", "other@snapbuy.test:4x1");
+        assertThat(cartStore.dirtyCount()).isZero();
+
+        cartStore.flush();
+        verify(repository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void failedFlushKeepsCartsDirty() {
+        cartStore.add("buyer@snapbuy.test", 9, 1);
+        when(repository.saveAll(any())).thenThrow(new IllegalStateException("database down"));
+
+        cartStore.flush();
+
+        assertThat(cartStore.dirtyCount()).isEqualTo(1);
+    }
+}
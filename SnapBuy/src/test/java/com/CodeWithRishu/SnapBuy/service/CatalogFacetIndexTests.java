@@ -0,0 +1,78 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.response.FacetCountResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductBrowseResponse;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductSummaryResponse;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CatalogFacetIndexTests {
+
+    private CatalogFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CatalogFacetIndex(mock(ProductRepository.class),
+                new BigDecimal[]{new BigDecimal("100"), new BigDecimal("50")});
+        index.put(product(1, "Laptop", "Acme", "899.00", 3));
+        index.put(product(2, "laptop", "Zenith", "49.99", 0));
+        index.put(product(3, "Phone", "Acme", "75.00", 10));
+        index.put(product(4, "Phone", "Zenith", "20.00", 1));
+    }
+
+    @Test
+    void facetsAreAndedAndValuesOred() {
+        ProductBrowseResponse response = index.browse(Map.of(
+                CatalogFacetIndex.BRAND, List.of("acme", "zenith"),
+                CatalogFacetIndex.CATEGORY, List.of("LAPTOP")), 0, 10);
+
+        assertThat(response.results().getContent()).extracting(ProductSummaryResponse::id).containsExactly(1L, 2L);
+        assertThat(response.results().getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void countsIgnoreTheFacetsOwnSelection() {
+        ProductBrowseResponse response = index.browse(Map.of(CatalogFacetIndex.CATEGORY, List.of("Phone")), 0, 10);
+
+        assertThat(response.facets().get(CatalogFacetIndex.CATEGORY)).containsExactly(
+                new FacetCountResponse("Laptop", 2, false), new FacetCountResponse("Phone", 2, true));
+        assertThat(response.facets().get(CatalogFacetIndex.BRAND)).containsExactly(
+                new FacetCountResponse("Acme", 1, false), new FacetCountResponse("Zenith", 1, false));
+        assertThat(response.facets().get(CatalogFacetIndex.PRICE)).extracting(FacetCountResponse::value)
+                .containsExactly("0-50", "50-100");
+    }
+
+    @Test
+    void updatesMoveProductsBetweenBitmaps() {
+        index.updateStock(2, 5);
+        index.remove(4);
+
+        ProductBrowseResponse response = index.browse(Map.of(CatalogFacetIndex.AVAILABILITY, List.of("in-stock")), 0, 10);
+
+        assertThat(response.results().getContent()).extracting(ProductSummaryResponse::id).containsExactly(1L, 2L, 3L);
+        assertThat(response.facets().get(CatalogFacetIndex.PRICE)).extracting(FacetCountResponse::value)
+                .containsExactly("0-50", "50-100", "100+");
+    }
+
+    @Test
+    void pagesWalkTheMatchingIds() {
+        ProductBrowseResponse response = index.browse(Map.of(), 1, 3);
+
+        assertThat(response.results().getContent()).extracting(ProductSummaryResponse::id).containsExactly(4L);
+        assertThat(response.results().isLast()).isTrue();
+    }
+
+    private static Product product(long id, String category, String brand, String price, int stock) {
+        return Product.builder().id(id).name(category + " " + id).category(category).brand(brand)
+                .price(new BigDecimal(price)).productAvailable(true).stockQuantity(stock).build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.ProductSnapshotRow;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotServiceTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CatalogVersion catalogVersion;
+    private CatalogSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findSnapshotRowsAfter(eq(0L), any())).thenReturn(List.of(
+                row(1, "banana", "3.00"), row(2, "Apple", "5.00"), row(3, "cherry", "1.00")));
+        when(productRepository.findSnapshotRowsAfter(eq(3L), any())).thenReturn(List.of());
+
+        catalogVersion = mock(CatalogVersion.class);
+        when(catalogVersion.version()).thenReturn(7L);
+        service = new CatalogSnapshotService(productRepository, catalogVersion, objectMapper, true, new int[]{2}, 1, 3);
+        service.refresh();
+    }
+
+    @Test
+    void prerenderedPageMatchesPageShape() throws Exception {
+        JsonNode json = objectMapper.readTree(service.page(0, 2, "name", "asc").orElseThrow());
+
+        assertThat(json.get("content")).extracting(node -> node.get("name").asText()).containsExactly("Apple", "banana");
+        assertThat(json.get("totalElements").asLong()).isEqualTo(3);
+    }
+
+    @Test
+    void pagesPastThePrerenderedOnesAreSerializedOnDemand() throws Exception {
+        byte[] page = service.page(1, 2, "price", "desc").orElseThrow();
+
+        assertThat(objectMapper.readTree(page).get("content"))
+                .extracting(node -> node.get("id").asLong()).containsExactly(3L);
+    }
+
+    @Test
+    void staleSnapshotOrUnknownSortFallsBackToDatabase() {
+        assertThat(service.page(0, 2, "brand", "asc")).isEmpty();
+        assertThat(service.page(0, 2, "name", "sideways")).isEmpty();
+
+        when(catalogVersion.version()).thenReturn(8L);
+        assertThat(service.page(0, 2, "name", "asc")).isEmpty();
+    }
+
+    private static ProductSnapshotRow row(long id, String name, String price) {
+        return new ProductSnapshotRow(id, name, null, null, new BigDecimal(price), "fruit", null, true, null, null, null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CoOccurrenceMatrixTests {
+
+    private final CoOccurrenceMatrix matrix = new CoOccurrenceMatrix(50);
+
+    private void order(long... productIds) {
+        matrix.addOrder(productIds, productIds.length);
+    }
+
+    @Test
+    void ranksNeighboursByCosineSimilarity() {
+        // 1 and 2 always go together; 3 is in every basket and so says little about any of them
+        order(1, 2, 3);
+        order(1, 2, 3);
+        order(3, 4);
+        order(3, 4);
+        order(3, 5);
+
+        Map<Long, CoOccurrenceMatrix.Neighbours> top = matrix.topNeighbours(10, 2);
+
+        assertThat(top.get(1L).productIds()).containsExactly(2L, 3L);
+        assertThat(top.get(1L).scores()[0]).isCloseTo(1.0, within(1e-9));
+        assertThat(top.get(1L).scores()[1]).isCloseTo(2 / Math.sqrt(2 * 5), within(1e-9));
+        assertThat(top.get(3L).productIds()).containsExactly(1L, 2L, 4L);
+        assertThat(top).doesNotContainKey(5L);
+    }
+
+    @Test
+    void duplicateLinesCountOnceAndListsAreCapped() {
+        order(7, 7, 8, 9, 10);
+        order(7, 8, 9, 10);
+
+        Map<Long, CoOccurrenceMatrix.Neighbours> top = matrix.topNeighbours(2, 1);
+
+        assertThat(matrix.pairs()).isEqualTo(6);
+        assertThat(top.get(7L).productIds()).containsExactly(8L, 9L);
+        assertThat(top.get(7L).scores()).containsExactly(1.0, 1.0);
+    }
+
+    @Test
+    void primitiveMapGrowsPastItsInitialCapacity() {
+        LongIntHashMap counts = new LongIntHashMap(4);
+        for (long key = -5000; key < 5000; key++) {
+            counts.addTo(key, 1);
+            counts.addTo(key, (int) (key & 3));
+        }
+
+        assertThat(counts.size()).isEqualTo(10_000);
+        assertThat(counts.get(4242)).isEqualTo(1 + (4242 & 3));
+        assertThat(counts.get(-1)).isEqualTo(4);
+        assertThat(counts.get(99_999)).isZero();
+    }
+}
@@ -0,0 +1,42 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvSupportTests {
+
+    @Test
+    void readsQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(
+                "id,name,description\r\n,\"Desk, Oak\",\"Says \"\"solid\"\"\nover two lines\"\r\n7,Lamp,\n"));
+
+        assertThat(CsvSupport.readRecord(reader)).containsExactly("id", "name", "description");
+        assertThat(CsvSupport.readRecord(reader)).containsExactly("", "Desk, Oak", "Says \"solid\"\nover two lines");
+        assertThat(CsvSupport.readRecord(reader)).containsExactly("7", "Lamp", "");
+        assertThat(CsvSupport.readRecord(reader)).isNull();
+    }
+
+    @Test
+    void writtenRecordsReadBackUnchanged() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvSupport.writeRecord(out, "12", "Mug \"XL\"", "a,b", null, "plain");
+
+        assertThat(out.toString()).isEqualTo("12,\"Mug \"\"XL\"\"\",\"a,b\",,plain\n");
+        assertThat(CsvSupport.readRecord(new BufferedReader(new StringReader(out.toString()))))
+                .containsExactly("12", "Mug \"XL\"", "a,b", "", "plain");
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() {
+        BufferedReader reader = new BufferedReader(new StringReader("1,\"broken\n"));
+
+        assertThatThrownBy(() -> CsvSupport.readRecord(reader)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DecayedCountersTests {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    // value 0 halves every 100 hours, value 1 every hour
+    private final DecayedCounters<Long> counters = new DecayedCounters<>(8, 100.0 * HOUR, 1.0 * HOUR);
+
+    @Test
+    void shortHalfLifeFavoursRecentSales() {
+        counters.add(1L, "phones", 10, 0);
+        counters.add(2L, "phones", 4, 3 * HOUR);
+
+        long now = 3 * HOUR;
+        assertThat(counters.top(0, 2, group -> true, now)).extracting(DecayedCounters.Scored::key).containsExactly(1L, 2L);
+        assertThat(counters.top(1, 2, group -> true, now)).extracting(DecayedCounters.Scored::key).containsExactly(2L, 1L);
+        assertThat(counters.top(1, 1, group -> true, now).getFirst().score()).isCloseTo(4.0, within(1e-9));
+        assertThat(counters.top(1, 2, group -> true, now).getLast().score()).isCloseTo(10.0 / 8, within(1e-9));
+    }
+
+    @Test
+    void topKeepsOnlyTheBestMatchingKeys() {
+        for (long id = 1; id <= 20; id++) {
+            counters.add(id, id % 2 == 0 ? "even" : "odd", id, 0);
+        }
+
+        assertThat(counters.top(0, 3, "odd"::equals, 0)).extracting(DecayedCounters.Scored::key).containsExactly(19L, 17L, 15L);
+    }
+
+    @Test
+    void dirtyCountersAreDrainedOnceAndConcurrentAddsAreNotLost() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            pool.invokeAll(IntStream.range(0, 8).<Callable<Void>>mapToObj(t -> () -> {
+                for (int i = 0; i < 1000; i++) {
+                    counters.add((long) (i % 10), null, 1, 0);
+                }
+                return null;
+            }).toList());
+        } finally {
+            pool.shutdown();
+        }
+
+        List<DecayedCounters.Snapshot<Long>> dirty = counters.drainDirty(0);
+        assertThat(dirty).hasSize(10).allSatisfy(snapshot -> assertThat(snapshot.deltas()[0]).isEqualTo(800.0));
+        assertThat(counters.drainDirty(0)).isEmpty();
+    }
+
+    @Test
+    void drainsOnlyWhatWasAddedSinceTheLastCheckpoint() {
+        counters.restore(1L, "phones", new double[]{100, 100}, 0);
+        counters.add(1L, "phones", 4, 0);
+
+        assertThat(counters.drainDirty(0).getFirst().deltas()).containsExactly(4.0, 4.0);
+
+        counters.add(1L, "phones", 2, 0);
+        List<DecayedCounters.Snapshot<Long>> failed = counters.drainDirty(0);
+        counters.requeue(failed);
+        counters.add(1L, "phones", 1, HOUR);
+
+        DecayedCounters.Snapshot<Long> retried = counters.drainDirty(HOUR).getFirst();
+        assertThat(retried.deltas()[1]).isCloseTo(2.0 / 2 + 1, within(1e-9));
+        assertThat(counters.top(1, 1, group -> true, HOUR).getFirst().score()).isCloseTo(106.0 / 2 + 1, within(1e-9));
+    }
+
+    @Test
+    void lateNegativeAmountTakesBackTheDecayedSale() {
+        counters.add(1L, "phones", 8, 0);
+        counters.add(1L, "phones", 2, 2 * HOUR);
+        counters.add(1L, "phones", -8, 0);
+
+        assertThat(counters.top(0, 1, group -> true, 2 * HOUR).getFirst().score()).isCloseTo(2.0, within(1e-9));
+        assertThat(counters.top(1, 1, group -> true, 2 * HOUR).getFirst().score()).isCloseTo(2.0, within(1e-9));
+    }
+}
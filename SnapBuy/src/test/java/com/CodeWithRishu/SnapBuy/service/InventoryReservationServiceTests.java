@@ -0,0 +1,157 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatusRow;
+import com.CodeWithRishu.SnapBuy.dto.ReservationStatus;
+import com.CodeWithRishu.SnapBuy.dto.response.OrderStatusUpdateResponse;
+import com.CodeWithRishu.SnapBuy.entity.InventoryReservation;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.repository.InventoryReservationRepository;
+import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import com.CodeWithRishu.SnapBuy.repository.ProductStockShardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryReservationServiceTests {
+
+    private final Product hotProduct = Product.builder().id(1L).name("Drop Sneaker").price(BigDecimal.TEN).stockQuantity(10).build();
+    private final InventoryReservationRepository reservations = mock(InventoryReservationRepository.class);
+    private final OrderRepository orders = mock(OrderRepository.class);
+    private final ProductRepository products = mock(ProductRepository.class);
+    private final OrderStatusService orderStatusService = mock(OrderStatusService.class);
+    private InventoryReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(reservations.sumHeldByProduct()).thenReturn(List.of());
+        ShardedStockService unsharded = new ShardedStockService(mock(ProductStockShardRepository.class), mock(ProductRepository.class),
+                mock(CatalogFacetIndex.class), mock(PlatformTransactionManager.class), 8);
+        service = new InventoryReservationService(reservations, orders, products, unsharded, mock(ProductVectorIndexer.class),
+                mock(CatalogFacetIndex.class), orderStatusService, mock(PlatformTransactionManager.class), 45, 500);
+        service.loadHeldCounters();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void concurrentReservationsNeverOversellStock() throws Exception {
+        ExecutorService buyers = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = IntStream.range(0, 64)
+                .mapToObj(i -> buyers.submit(() -> {
+                    TransactionSynchronizationManager.initSynchronization();
+                    try {
+                        start.await();
+                        service.reserve("ORD-" + i, Map.of(1L, 1), Map.of(1L, hotProduct));
+                        return true;
+                    } catch (ResponseStatusException e) {
+                        return false;
+                    } finally {
+                        TransactionSynchronizationManager.clearSynchronization();
+                    }
+                }))
+                .toList();
+        start.countDown();
+
+        long successes = 0;
+        for (Future<Boolean> attempt : attempts) {
+            successes += attempt.get(5, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        buyers.shutdown();
+
+        assertThat(successes).isEqualTo(10);
+        assertThat(service.available(1L, hotProduct.getStockQuantity())).isZero();
+    }
+
+    @Test
+    void rolledBackOrderGivesItsHoldBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.reserve("ORD-1", Map.of(1L, 4), Map.of(1L, hotProduct));
+        assertThat(service.available(1L, 10)).isEqualTo(6);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(service.available(1L, 10)).isEqualTo(10);
+    }
+
+    @Test
+    void failedMultiItemReservationReleasesPartialHolds() {
+        Product scarce = Product.builder().id(2L).name("Limited Cap").price(BigDecimal.ONE).stockQuantity(1).build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThatThrownBy(() -> service.reserve("ORD-1", Map.of(1L, 3, 2L, 2), Map.of(1L, hotProduct, 2L, scarce)))
+                .isInstanceOf(ResponseStatusException.class);
+
+        assertThat(service.available(1L, 10)).isEqualTo(10);
+        assertThat(service.available(2L, 1)).isEqualTo(1);
+    }
+
+    @Test
+    void sweepCancelsOnlyUnpaidOrdersAndSellsThePaidOnesHolds() {
+        when(reservations.findExpiredOrderIds(any(), any())).thenReturn(List.of("ORD-1", "ORD-2", "ORD-3"), List.of());
+        when(orders.lockStatuses(List.of("ORD-1", "ORD-2", "ORD-3"))).thenReturn(List.of(
+                new OrderStatusRow("ORD-1", OrderStatus.PENDING),
+                new OrderStatusRow("ORD-2", OrderStatus.CONFIRMED),
+                new OrderStatusRow("ORD-3", OrderStatus.CANCELLED)));
+        when(reservations.lockHeldForOrders(List.of("ORD-2"))).thenReturn(List.of(hold(20L, "ORD-2", 2)));
+        when(reservations.lockHeldForOrders(List.of("ORD-1", "ORD-3"))).thenReturn(List.of(hold(10L, "ORD-1", 1), hold(30L, "ORD-3", 1)));
+        when(products.decrementStock(1L, 2)).thenReturn(1);
+        when(orderStatusService.transition(List.of("ORD-1"), OrderStatus.CANCELLED))
+                .thenReturn(new OrderStatusUpdateResponse(OrderStatus.CANCELLED, 1, 1, List.of()));
+
+        service.sweepExpiredHolds();
+
+        verify(reservations).updateStatus(List.of(20L), ReservationStatus.CONVERTED);
+        verify(reservations).updateStatus(List.of(10L, 30L), ReservationStatus.RELEASED);
+        verify(orderStatusService).transition(List.of("ORD-1"), OrderStatus.CANCELLED);
+        verify(orderStatusService, never()).transition(argThat(ids -> ids.contains("ORD-2")), eq(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void holdTheStockCannotCoverIsFlaggedInsteadOfOversold() {
+        when(reservations.lockHeldForOrders(List.of("ORD-1"))).thenReturn(List.of(hold(10L, "ORD-1", 3)));
+        when(products.decrementStock(1L, 3)).thenReturn(0);
+
+        service.convertToSale(List.of("ORD-1"));
+
+        verify(reservations).updateStatus(List.of(10L), ReservationStatus.SHORTFALL);
+        verify(reservations, never()).updateStatus(any(), eq(ReservationStatus.CONVERTED));
+    }
+
+    private static InventoryReservation hold(long id, String orderId, int quantity) {
+        return InventoryReservation.builder().id(id).orderId(orderId).productId(1L).quantity(quantity)
+                .status(ReservationStatus.HELD).build();
+    }
+}
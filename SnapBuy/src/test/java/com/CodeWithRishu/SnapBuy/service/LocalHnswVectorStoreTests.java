@@ -0,0 +1,205 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.DefaultContentFormatter;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalHnswVectorStoreTests {
+
+    private final RandomEmbeddingModel embeddingModel = new RandomEmbeddingModel();
+    private LocalHnswVectorStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalHnswVectorStore(embeddingModel, 16, 100, 64, 0.3);
+    }
+
+    @Test
+    void approximateSearchMatchesExactNeighbours() {
+        List<Document> documents = IntStream.range(0, 500)
+                .mapToObj(i -> new Document(String.valueOf(i), "product " + i, Map.of("stock", i % 3)))
+                .toList();
+        store.add(documents);
+
+        int found = 0;
+        for (int q = 0; q < 20; q++) {
+            String query = "query " + q;
+            Set<String> expected = exactTopK(query, documents, 5);
+            found += (int) store.similaritySearch(SearchRequest.builder().query(query).topK(5).build()).stream()
+                    .map(Document::getId)
+                    .filter(expected::contains)
+                    .count();
+        }
+
+        assertThat(found / 100.0).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void deletesReplacementsAndFiltersAreApplied() {
+        store.add(List.of(
+                new Document("1", "phone", Map.of("available", true, "stock", 4)),
+                new Document("2", "laptop", Map.of("available", false, "stock", 0))));
+        store.add(List.of(new Document("1", "phone", Map.of("available", true, "stock", 3))));
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.similaritySearch(SearchRequest.builder().query("phone").topK(5)
+                .filterExpression("available == true && stock > 0").build()))
+                .extracting(Document::getId)
+                .containsExactly("1");
+
+        store.delete(List.of("1"));
+        assertThat(store.similaritySearch(SearchRequest.builder().query("phone").topK(5).build()))
+                .extracting(Document::getId)
+                .containsExactly("2");
+    }
+
+    @Test
+    void selectiveFilterWidensTheSearchUntilTopKMatch() {
+        store.add(IntStream.range(0, 500)
+                .mapToObj(i -> new Document(String.valueOf(i), "product " + i, Map.of("stock", i % 100 == 0 ? 1 : 0)))
+                .toList());
+
+        assertThat(store.similaritySearch(SearchRequest.builder().query("query").topK(5).filterExpression("stock > 0").build()))
+                .extracting(Document::getId)
+                .containsExactlyInAnyOrder("0", "100", "200", "300", "400");
+    }
+
+    @Test
+    void scanListsLiveDocumentsByMetadataWithoutEmbedding() {
+        store.add(IntStream.range(0, 20)
+                .mapToObj(i -> new Document("doc-" + i, "product " + i, Map.of("productId", String.valueOf(i % 10))))
+                .toList());
+        store.delete(List.of("doc-13"));
+        int embedded = embeddingModel.embedded;
+
+        assertThat(store.scan(values -> "3".equals(values.get("productId"))))
+                .extracting(Document::getId)
+                .containsExactly("doc-3");
+        assertThat(store.scan(values -> true)).hasSize(19);
+        assertThat(embeddingModel.embedded).isEqualTo(embedded);
+    }
+
+    @Test
+    void snapshotRestoresTheSameIndex(@TempDir Path directory) {
+        store.add(IntStream.range(0, 50)
+                .mapToObj(i -> new Document(String.valueOf(i), "product " + i, Map.of("productId", String.valueOf(i))))
+                .toList());
+        store.delete(List.of("7"));
+        Path snapshot = directory.resolve("index.snap");
+        store.snapshot(snapshot);
+
+        LocalHnswVectorStore restored = new LocalHnswVectorStore(embeddingModel, 16, 100, 64, 0.3);
+        restored.restore(snapshot);
+
+        SearchRequest request = SearchRequest.builder().query("query").topK(5).build();
+        assertThat(restored.size()).isEqualTo(49);
+        assertThat(restored.similaritySearch(request)).extracting(Document::getId)
+                .containsExactlyElementsOf(store.similaritySearch(request).stream().map(Document::getId).toList());
+    }
+
+    @Test
+    void metadataOnlyReAddsStayInPlaceAndReplacementsAreCompacted() {
+        DefaultContentFormatter semanticOnly = DefaultContentFormatter.builder()
+                .withExcludedEmbedMetadataKeys("stock")
+                .build();
+        store.add(IntStream.range(0, 100).mapToObj(i -> document(semanticOnly, i, "product " + i, 5)).toList());
+        int embedded = embeddingModel.embedded;
+
+        store.add(IntStream.range(0, 100).mapToObj(i -> document(semanticOnly, i, "product " + i, 0)).toList());
+
+        assertThat(embeddingModel.embedded).isEqualTo(embedded);
+        assertThat(store.nodeCount()).isEqualTo(100);
+        assertThat(store.similaritySearch(SearchRequest.builder().query("product 3").topK(5)
+                .filterExpression("stock > 0").build())).isEmpty();
+
+        for (int round = 0; round < 5; round++) {
+            String text = "renamed " + round + " product ";
+            store.add(IntStream.range(0, 100).mapToObj(i -> document(semanticOnly, i, text + i, 1)).toList());
+        }
+
+        assertThat(store.size()).isEqualTo(100);
+        assertThat(store.nodeCount()).isEqualTo(100);
+        assertThat(store.similaritySearch(SearchRequest.builder().query("renamed 4 product 42").topK(1).build()))
+                .extracting(Document::getId)
+                .containsExactly("42");
+    }
+
+    private static Document document(DefaultContentFormatter formatter, int id, String text, int stock) {
+        Document document = new Document(String.valueOf(id), text, Map.of("stock", stock));
+        document.setContentFormatter(formatter);
+        return document;
+    }
+
+    private Set<String> exactTopK(String query, List<Document> documents, int k) {
+        float[] q = embeddingModel.vector(query);
+        return documents.stream()
+                .sorted(Comparator.comparingDouble((Document d) -> cosine(q, embeddingModel.vector(d.getFormattedContent(MetadataMode.EMBED)))).reversed())
+                .limit(k)
+                .map(Document::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0, na = 0, nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return dot / Math.sqrt(na * nb);
+    }
+
+    private static class RandomEmbeddingModel implements EmbeddingModel {
+
+        int embedded;
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            embedded += request.getInstructions().size();
+            for (int i = 0; i < request.getInstructions().size(); i++) {
+                embeddings.add(new Embedding(vector(request.getInstructions().get(i)), i));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return vector(document.getText());
+        }
+
+        @Override
+        public int dimensions() {
+            return 16;
+        }
+
+        float[] vector(String text) {
+            Random random = new Random(text.strip().hashCode());
+            float[] vector = new float[16];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+            return vector;
+        }
+    }
+}
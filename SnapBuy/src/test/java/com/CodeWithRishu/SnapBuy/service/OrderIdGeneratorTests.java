@@ -0,0 +1,62 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderIdGeneratorTests {
+
+    private final OrderIdGenerator generator = new OrderIdGenerator(7);
+
+    @Test
+    void idsAreFixedWidthAndSortInCreationOrder() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        assertThat(ids).allSatisfy(id -> assertThat(id).matches("ORD[0-9A-HJKMNP-TV-Z]{13}"));
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void concurrentCallersNeverCollide() throws Exception {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(pool.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        assertThat(ids).hasSize(160_000);
+    }
+
+    @Test
+    void encodingPreservesNumericOrder() {
+        assertThat(OrderIdGenerator.encode(0)).isEqualTo("ORD0000000000000");
+        assertThat(OrderIdGenerator.encode(31)).isLessThan(OrderIdGenerator.encode(32));
+        assertThat(OrderIdGenerator.encode(Long.MAX_VALUE)).isEqualTo("ORD7ZZZZZZZZZZZZ");
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTenBits() {
+        assertThatThrownBy(() -> new OrderIdGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
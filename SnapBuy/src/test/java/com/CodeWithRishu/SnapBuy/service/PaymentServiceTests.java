@@ -0,0 +1,170 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.CheckoutLineRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.request.StripeRequest;
+import com.CodeWithRishu.SnapBuy.dto.response.StripeResponse;
+import com.CodeWithRishu.SnapBuy.exception.ResourceNotFoundException;
+import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
+import com.stripe.Stripe;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentServiceTests {
+
+    private final AtomicInteger sessionCreates = new AtomicInteger();
+    private final CountDownLatch releaseResponses = new CountDownLatch(1);
+    private volatile String lastRequestBody;
+    private HttpServer stripeStub;
+    private String originalApiBase;
+    private OrderRepository orderRepository;
+    private PaymentService paymentService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stripeStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stripeStub.createContext("/v1/checkout/sessions", exchange -> {
+            int call = sessionCreates.incrementAndGet();
+            lastRequestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            try {
+                releaseResponses.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"id\":\"cs_test_" + call + "\",\"object\":\"checkout.session\",\"url\":\"https://checkout.test/" + call
+                    + "\",\"expires_at\":" + Instant.now().plusSeconds(3600).getEpochSecond() + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stripeStub.setExecutor(Executors.newCachedThreadPool());
+        stripeStub.start();
+
+        originalApiBase = Stripe.getApiBase();
+        Stripe.overrideApiBase("http://127.0.0.1:" + stripeStub.getAddress().getPort());
+        Stripe.apiKey = "sk_test_stub";
+
+        orderRepository = mock(OrderRepository.class);
+        Instant placedAt = Instant.now();
+        when(orderRepository.findCheckoutLines("ORD-1")).thenReturn(List.of(
+                new CheckoutLineRow("buyer@snapbuy.test", OrderStatus.PENDING, placedAt, "Phone", 2, new BigDecimal("998.00")),
+                new CheckoutLineRow("buyer@snapbuy.test", OrderStatus.PENDING, placedAt, "Case", 1, new BigDecimal("49.50"))));
+        paymentService = new PaymentService("http://localhost/success", "http://localhost/cancel", "inr", 4, 16, 45, orderRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentService.shutdown();
+        stripeStub.stop(0);
+        Stripe.overrideApiBase(originalApiBase);
+    }
+
+    @Test
+    void concurrentRequestsForTheSameOrderShareOneStripeSession() {
+        List<CompletableFuture<StripeResponse>> futures = IntStream.range(0, 10)
+                .mapToObj(i -> paymentService.createOrderByStripe(request("ORD-1"), "buyer@snapbuy.test"))
+                .toList();
+        releaseResponses.countDown();
+
+        List<String> sessionIds = futures.stream().map(CompletableFuture::join).map(StripeResponse::getSessionId).distinct().toList();
+
+        assertThat(sessionIds).containsExactly("cs_test_1");
+        assertThat(sessionCreates).hasValue(1);
+        verify(orderRepository, times(1)).updatePaymentSessionId("ORD-1", "cs_test_1");
+        verify(orderRepository, times(1)).findCheckoutLines("ORD-1");
+
+        StripeResponse replayed = paymentService.createOrderByStripe(request("ORD-1"), "buyer@snapbuy.test").join();
+        assertThat(replayed.getSessionId()).isEqualTo("cs_test_1");
+        assertThat(sessionCreates).hasValue(1);
+    }
+
+    @Test
+    void buildsOneLineItemPerOrderItemWithServerSidePrices() {
+        releaseResponses.countDown();
+
+        paymentService.createOrderByStripe(request("ORD-1"), "buyer@snapbuy.test").join();
+
+        String body = URLDecoder.decode(lastRequestBody, StandardCharsets.UTF_8);
+        assertThat(body)
+                .contains("line_items[0][price_data][product_data][name]=Phone")
+                .contains("line_items[0][price_data][unit_amount]=49900")
+                .contains("line_items[0][quantity]=2")
+                .contains("line_items[1][price_data][product_data][name]=Case")
+                .contains("line_items[1][price_data][unit_amount]=4950")
+                .contains("line_items[0][price_data][currency]=inr")
+                .contains("client_reference_id=ORD-1")
+                .contains("expires_at=");
+    }
+
+    @Test
+    void rejectsOrdersThatBelongToAnotherCustomer() {
+        releaseResponses.countDown();
+
+        assertThatThrownBy(() -> paymentService.createOrderByStripe(request("ORD-1"), "someone@else.test"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> paymentService.createOrderByStripe(request("ORD-404"), "buyer@snapbuy.test"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(sessionCreates).hasValue(0);
+    }
+
+    @Test
+    void checkoutClosesWhenASessionCouldNoLongerOutliveStripesMinimumBeforeTheHoldEnds() {
+        releaseResponses.countDown();
+        when(orderRepository.findCheckoutLines("ORD-2")).thenReturn(List.of(new CheckoutLineRow(
+                "buyer@snapbuy.test", OrderStatus.PENDING, Instant.now().minusSeconds(14 * 60), "Phone", 1, new BigDecimal("499.00"))));
+
+        assertThatThrownBy(() -> paymentService.createOrderByStripe(request("ORD-2"), "buyer@snapbuy.test"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("closed at");
+        assertThat(sessionCreates).hasValue(0);
+
+        PaymentService longerHold = new PaymentService("http://localhost/success", "http://localhost/cancel", "inr", 4, 16, 75, orderRepository);
+        try {
+            assertThat(longerHold.createOrderByStripe(request("ORD-2"), "buyer@snapbuy.test").join().getSessionId()).isEqualTo("cs_test_1");
+        } finally {
+            longerHold.shutdown();
+        }
+        assertThatThrownBy(() -> new PaymentService("http://localhost/success", "http://localhost/cancel", "inr", 4, 16, 32, orderRepository))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void minorUnitsFollowTheCurrency() {
+        assertThat(PaymentService.minorUnitDigits("inr")).isEqualTo(2);
+        assertThat(PaymentService.minorUnitDigits("JPY")).isZero();
+        assertThat(PaymentService.minorUnitDigits("kwd")).isEqualTo(3);
+        assertThat(PaymentService.minorUnitDigits("isk")).isEqualTo(2);
+        assertThatThrownBy(() -> PaymentService.minorUnitDigits("xau")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private StripeRequest request(String orderId) {
+        return new StripeRequest(orderId);
+    }
+}
@@ -0,0 +1,77 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.response.OrderStatusUpdateResponse;
+import com.CodeWithRishu.SnapBuy.entity.PaymentEvent;
+import com.CodeWithRishu.SnapBuy.repository.PaymentEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentWebhookServiceTests {
+
+    private PaymentEventRepository events;
+    private OrderStatusService orderStatusService;
+    private PaymentService paymentService;
+    private PaymentWebhookService service;
+
+    @BeforeEach
+    void setUp() {
+        events = mock(PaymentEventRepository.class);
+        orderStatusService = mock(OrderStatusService.class);
+        paymentService = mock(PaymentService.class);
+        service = new PaymentWebhookService(events, orderStatusService, paymentService, "whsec_test", 200, 30);
+    }
+
+    @Test
+    void paymentForACancelledOrderIsRecordedAsFailedAndRefunded() throws Exception {
+        when(events.findUnprocessed(any())).thenReturn(List.of(
+                event(1, "checkout.session.completed", "ORD-1", "cs_1"),
+                event(2, "checkout.session.completed", "ORD-2", "cs_2")));
+        when(orderStatusService.transition(List.of("ORD-1", "ORD-2"), OrderStatus.CONFIRMED))
+                .thenReturn(new OrderStatusUpdateResponse(OrderStatus.CONFIRMED, 2, 1, List.of(
+                        new OrderStatusUpdateResponse.Failure("ORD-2", OrderStatus.CANCELLED, "Cannot move from CANCELLED to CONFIRMED"))));
+
+        service.processInbox();
+
+        verify(events).markProcessed(eq(List.of(1L)), any(Instant.class));
+        verify(events).markFailed(eq(List.of(2L)), eq("Cannot move from CANCELLED to CONFIRMED"), any(Instant.class));
+        verify(paymentService).refundSession("ORD-2", "cs_2");
+    }
+
+    @Test
+    void redeliveredTransitionsAreProcessedWithoutARefund() throws Exception {
+        when(events.findUnprocessed(any())).thenReturn(List.of(event(1, "checkout.session.completed", "ORD-1", "cs_1")));
+        when(orderStatusService.transition(List.of("ORD-1"), OrderStatus.CONFIRMED))
+                .thenReturn(new OrderStatusUpdateResponse(OrderStatus.CONFIRMED, 1, 0, List.of(
+                        new OrderStatusUpdateResponse.Failure("ORD-1", OrderStatus.CONFIRMED, "Order is already CONFIRMED"))));
+
+        service.processInbox();
+
+        verify(events).markProcessed(eq(List.of(1L)), any(Instant.class));
+        verify(events, never()).markFailed(anyCollection(), anyString(), any(Instant.class));
+        verify(paymentService, never()).refundSession(anyString(), anyString());
+    }
+
+    private static PaymentEvent event(long id, String type, String orderId, String sessionId) {
+        return PaymentEvent.builder()
+                .id(id)
+                .eventId("evt_" + id)
+                .type(type)
+                .orderId(orderId)
+                .sessionId(sessionId)
+                .receivedAt(Instant.now())
+                .build();
+    }
+}
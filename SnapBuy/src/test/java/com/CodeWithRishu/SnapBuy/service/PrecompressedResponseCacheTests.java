@@ -0,0 +1,62 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.service.PrecompressedResponseCache.Encoding;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrecompressedResponseCacheTests {
+
+    private static final Set<Encoding> ALL = EnumSet.allOf(Encoding.class);
+
+    private final PrecompressedResponseCache cache = new PrecompressedResponseCache(1_000_000, 64, 6, 5, 3);
+    private final byte[] body = "{\"name\":\"product\"},".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void negotiationHonoursQValuesAndWildcard() {
+        assertThat(PrecompressedResponseCache.negotiate("gzip, deflate, br, zstd", ALL)).isEqualTo(Encoding.BROTLI);
+        assertThat(PrecompressedResponseCache.negotiate("gzip;q=1.0, br;q=0.5", ALL)).isEqualTo(Encoding.GZIP);
+        assertThat(PrecompressedResponseCache.negotiate("br;q=0, *", EnumSet.of(Encoding.BROTLI, Encoding.GZIP))).isEqualTo(Encoding.GZIP);
+        assertThat(PrecompressedResponseCache.negotiate("gzip;q=0", ALL)).isNull();
+        assertThat(PrecompressedResponseCache.negotiate("identity", ALL)).isNull();
+        assertThat(PrecompressedResponseCache.negotiate(null, ALL)).isNull();
+    }
+
+    @Test
+    void bodyIsRenderedAndCompressedOncePerVersion() throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+
+        PrecompressedResponseCache.Variant first = cache.get("listing", 1, "gzip", () -> {
+            renders.incrementAndGet();
+            return body;
+        });
+        PrecompressedResponseCache.Variant again = cache.get("listing", 1, "gzip", () -> {
+            renders.incrementAndGet();
+            return body;
+        });
+
+        assertThat(renders).hasValue(1);
+        assertThat(again.body()).isSameAs(first.body());
+        assertThat(first.contentEncoding()).isEqualTo("gzip");
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(first.body())).readAllBytes()).isEqualTo(body);
+
+        cache.get("listing", 2, "gzip", () -> {
+            renders.incrementAndGet();
+            return body;
+        });
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void smallBodiesAndIdentityClientsGetPlainBytes() {
+        assertThat(cache.get("small", 1, "gzip", () -> new byte[]{'{', '}'}).contentEncoding()).isNull();
+        assertThat(cache.get("listing", 1, null, () -> body).body()).isEqualTo(body);
+    }
+}
@@ -0,0 +1,100 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.BulkFormat;
+import com.CodeWithRishu.SnapBuy.dto.ProductBulkRow;
+import com.CodeWithRishu.SnapBuy.dto.response.ProductImportResponse;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductBulkServiceTests {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductBulkService service = new ProductBulkService(productRepository, mock(ProductVectorIndexer.class),
+            mock(ShardedStockService.class), mock(ApplicationEventPublisher.class), new ObjectMapper(),
+            mock(PlatformTransactionManager.class), 10, 100);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private static ProductBulkRow row(String name, String brand, String price, LocalDate releaseDate) {
+        return new ProductBulkRow(null, name, null, brand, "Phones", price != null ? new BigDecimal(price) : null,
+                releaseDate, null, 5);
+    }
+
+    @Test
+    void rejectsValuesTheProductColumnsCannotHold() {
+        assertThat(ProductBulkService.validate(row("Phone", "Acme", "199.99", LocalDate.of(2024, 1, 1)))).isNull();
+        assertThat(ProductBulkService.validate(row("Phone", "A".repeat(256), "1", null))).startsWith("Brand");
+        assertThat(ProductBulkService.validate(row("Phone", "Acme", "1.005", null))).contains("decimal places");
+        assertThat(ProductBulkService.validate(row("Phone", "Acme", "1e40", null))).contains("integer digits");
+        assertThat(ProductBulkService.validate(row("Phone", "Acme", "1", LocalDate.of(10_000, 1, 1)))).startsWith("Release date");
+        assertThat(ProductBulkService.validate(new ProductBulkRow(7L, " ", null, null, null, null, null, null, null)))
+                .isEqualTo("Name must not be blank");
+    }
+
+    @Test
+    void failedBatchIsRetriedRowByRowSoOnlyTheBadLineIsRejected() throws Exception {
+        when(productRepository.findAllById(any())).thenReturn(List.of());
+        when(productRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.stream().anyMatch(product -> "Duplicate".equals(product.getName()))) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            return products;
+        });
+        String csv = "name,price,stockQuantity\nPhone,10,1\nDuplicate,5,1\nCase,2,3\n";
+
+        service.startImport(new MockMultipartFile("file", "products.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)),
+                BulkFormat.CSV);
+        ProductImportResponse report = awaitFinished();
+
+        assertThat(report.status()).isEqualTo("COMPLETED");
+        assertThat(report.created()).isEqualTo(2);
+        assertThat(report.rejected()).isEqualTo(1);
+        assertThat(report.errors()).containsExactly("Line 3: Could not be saved: Duplicate entry");
+    }
+
+    @Test
+    void productListedTwiceCountsAsOneUpdate() throws Exception {
+        Product existing = Product.builder().id(7L).name("Phone").price(BigDecimal.ONE).stockQuantity(1).build();
+        when(productRepository.findAllById(any())).thenReturn(List.of(existing));
+        when(productRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        String csv = "id,name,price,stockQuantity\n7,Phone,10,1\n7,Phone,12,2\n";
+
+        service.startImport(new MockMultipartFile("file", "products.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)),
+                BulkFormat.CSV);
+        ProductImportResponse report = awaitFinished();
+
+        assertThat(report.status()).isEqualTo("COMPLETED");
+        assertThat(report.updated()).isEqualTo(1);
+        assertThat(existing.getPrice()).isEqualByComparingTo("12");
+    }
+
+    private ProductImportResponse awaitFinished() throws InterruptedException {
+        ProductImportResponse report = service.status();
+        for (int i = 0; i < 500 && !"COMPLETED".equals(report.status()) && !"FAILED".equals(report.status()); i++) {
+            Thread.sleep(10);
+            report = service.status();
+        }
+        return report;
+    }
+}
@@ -0,0 +1,81 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.exception.ResourceNotFoundException;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductImageServiceTests {
+
+    @TempDir
+    Path cacheDir;
+
+    private ProductRepository productRepository;
+    private ProductImageService service;
+    private String version;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB), "png", png);
+        Product product = Product.builder().id(5L).imageType("image/png").imageData(png.toByteArray()).build();
+        version = ProductImageService.imageHash(product.getImageData());
+
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findById(5L)).thenReturn(Optional.of(product));
+        when(productRepository.findImageHashById(5L)).thenReturn(Optional.of(version));
+        service = new ProductImageService(productRepository, new int[]{160, 480, 1024}, cacheDir.toString(), 0.8f, 1_000_000);
+    }
+
+    @Test
+    void requestedWidthSnapsUpToConfiguredVariant() {
+        assertThat(service.variantWidth(200)).isEqualTo(480);
+        assertThat(service.variantWidth(160)).isEqualTo(160);
+        assertThat(service.variantWidth(5000)).isEqualTo(1024);
+        assertThat(service.variantWidth(null)).isNull();
+    }
+
+    @Test
+    void thumbnailIsGeneratedOnceThenServedFromMemory() throws Exception {
+        ProductImageService.ProductImage first = service.load(5L, 160, version);
+        ProductImageService.ProductImage second = service.load(5L, 160, version);
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(first.data()));
+        assertThat(first.contentType()).isEqualTo("image/jpeg");
+        assertThat(decoded.getWidth()).isEqualTo(160);
+        assertThat(decoded.getHeight()).isEqualTo(80);
+        assertThat(second).isSameAs(first);
+        assertThat(Files.exists(cacheDir.resolve("5").resolve("160-" + version + ".jpg"))).isTrue();
+        verify(productRepository, times(1)).findById(5L);
+    }
+
+    @Test
+    void productWithoutImageIsNotFoundWithoutLoadingTheRowAgain() {
+        when(productRepository.findImageHashById(6L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.version(6L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service.version(6L)).isInstanceOf(ResourceNotFoundException.class);
+
+        verify(productRepository, times(1)).findImageHashById(6L);
+        verify(productRepository, never()).findById(anyLong());
+    }
+}
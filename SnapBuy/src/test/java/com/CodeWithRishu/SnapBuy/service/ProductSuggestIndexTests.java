@@ -0,0 +1,84 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.ProductOrderCountRow;
+import com.CodeWithRishu.SnapBuy.dto.response.SuggestionResponse;
+import com.CodeWithRishu.SnapBuy.entity.Product;
+import com.CodeWithRishu.SnapBuy.repository.OrderRepository;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSuggestIndexTests {
+
+    private OrderRepository orderRepository;
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        index = new ProductSuggestIndex(mock(ProductRepository.class), orderRepository, 10, 6);
+        index.put(product(1, "Apple iPhone 15", "Apple", "Phones"));
+        index.put(product(2, "Apple iPad Air", "Apple", "Tablets"));
+        index.put(product(3, "Pixel 8", "Google", "Phones"));
+    }
+
+    @Test
+    void matchesAnyWordStartIgnoringCaseAndAccents() {
+        assertThat(index.suggest("IPHO", 5)).extracting(SuggestionResponse::text).containsExactly("Apple iPhone 15");
+        assertThat(index.suggest("píx", 5)).extracting(SuggestionResponse::text).containsExactly("Pixel 8");
+        assertThat(index.suggest("zzz", 5)).isEmpty();
+    }
+
+    @Test
+    void groupsOutweighTheirProductsUntilOrdersCountIn() {
+        assertThat(index.suggest("app", 5)).extracting(SuggestionResponse::type, SuggestionResponse::text)
+                .first().isEqualTo(tuple(ProductSuggestIndex.BRAND, "Apple"));
+
+        when(orderRepository.countOrdersByProduct(OrderStatus.CANCELLED)).thenReturn(List.of(new ProductOrderCountRow(3, 40)));
+        index.refreshPopularity();
+
+        assertThat(index.suggest("p", 2)).extracting(SuggestionResponse::text).containsExactly("Phones", "Pixel 8");
+    }
+
+    @Test
+    void renamesAndDeletesUpdateTheIndex() {
+        index.put(product(3, "Pixel 9 Pro", "Google", "Phones"));
+        index.remove(2);
+
+        assertThat(index.suggest("pixel", 5)).extracting(SuggestionResponse::text).containsExactly("Pixel 9 Pro");
+        assertThat(index.suggest("tab", 5)).isEmpty();
+        assertThat(index.suggest("apple", 5)).filteredOn(s -> s.type().equals(ProductSuggestIndex.BRAND))
+                .extracting(SuggestionResponse::weight).containsExactly(1L);
+    }
+
+    @Test
+    void trieKeepsDistinctTopValuesAcrossSplitsAndMerges() {
+        CompletionTrie<String> trie = new CompletionTrie<>(2, Comparator.naturalOrder());
+        trie.insert("team", "c");
+        trie.insert("tea", "b");
+        trie.insert("ten", "a");
+        trie.insert("tea", "a");
+
+        assertThat(trie.top("te", 5)).containsExactly("a", "b");
+        assertThat(trie.top("tea", 5)).containsExactly("a", "b");
+
+        trie.remove("tea", "a");
+        trie.remove("tea", "b");
+        assertThat(trie.top("tea", 5)).containsExactly("c");
+        assertThat(trie.top("t", 5)).containsExactly("a", "c");
+        assertThat(trie.top("tex", 5)).isEmpty();
+    }
+
+    private static Product product(long id, String name, String brand, String category) {
+        return Product.builder().id(id).name(name).brand(brand).category(category).build();
+    }
+}
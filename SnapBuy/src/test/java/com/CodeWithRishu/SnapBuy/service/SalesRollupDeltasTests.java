@@ -0,0 +1,77 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.OrderSalesRow;
+import com.CodeWithRishu.SnapBuy.dto.OrderStatus;
+import com.CodeWithRishu.SnapBuy.dto.RollupDimension;
+import com.CodeWithRishu.SnapBuy.dto.RollupGranularity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SalesRollupDeltasTests {
+
+    private static final Instant PLACED = Instant.parse("2026-03-14T15:42:10Z");
+    private static final Instant HOUR = Instant.parse("2026-03-14T15:00:00Z");
+    private static final Instant DAY = Instant.parse("2026-03-14T00:00:00Z");
+
+    private final List<OrderSalesRow> order = List.of(
+            line(1L, "Phones", 2, "400.00"),
+            line(1L, "Phones", 1, "200.00"),
+            line(2L, "Cases", 3, "30.00"));
+
+    private static OrderSalesRow line(Long productId, String category, int quantity, String total) {
+        return new OrderSalesRow(7, "ORD-7", PLACED, OrderStatus.PENDING, productId, category, quantity, new BigDecimal(total));
+    }
+
+    private static SalesRollupDeltas.Key key(RollupGranularity granularity, RollupDimension dimension, String value) {
+        return new SalesRollupDeltas.Key(granularity, granularity == RollupGranularity.HOUR ? HOUR : DAY, dimension, value);
+    }
+
+    @Test
+    void placedOrderCountsOncePerProductAndCategoryInBothBuckets() {
+        SalesRollupDeltas deltas = new SalesRollupDeltas();
+        deltas.add(order, OrderStatus.PENDING, 1);
+
+        Map<SalesRollupDeltas.Key, SalesRollupDeltas.Delta> rows = deltas.nonZero();
+        assertThat(rows).hasSize(2 * 6);
+        SalesRollupDeltas.Delta phones = rows.get(key(RollupGranularity.DAY, RollupDimension.PRODUCT, "1"));
+        assertThat(phones.orders).isEqualTo(1);
+        assertThat(phones.units).isEqualTo(3);
+        assertThat(phones.revenue).isEqualByComparingTo("600.00");
+        SalesRollupDeltas.Delta total = rows.get(key(RollupGranularity.HOUR, RollupDimension.TOTAL, SalesRollupDeltas.TOTAL_KEY));
+        assertThat(total.units).isEqualTo(6);
+        assertThat(total.revenue).isEqualByComparingTo("630.00");
+        assertThat(rows).containsKey(key(RollupGranularity.HOUR, RollupDimension.STATUS, "PENDING"));
+    }
+
+    @Test
+    void cancellationMovesTheStatusAndTakesBackTheSales() {
+        SalesRollupDeltas deltas = new SalesRollupDeltas();
+        deltas.add(order, OrderStatus.PENDING, -1);
+        deltas.add(order, OrderStatus.CANCELLED, 1);
+
+        Map<SalesRollupDeltas.Key, SalesRollupDeltas.Delta> rows = deltas.nonZero();
+        assertThat(rows.get(key(RollupGranularity.DAY, RollupDimension.STATUS, "PENDING")).orders).isEqualTo(-1);
+        assertThat(rows.get(key(RollupGranularity.DAY, RollupDimension.STATUS, "CANCELLED")).orders).isEqualTo(1);
+        assertThat(rows.get(key(RollupGranularity.DAY, RollupDimension.CATEGORY, "Cases")).revenue).isEqualByComparingTo("-30.00");
+        assertThat(rows).doesNotContainKey(key(RollupGranularity.DAY, RollupDimension.STATUS, "CONFIRMED"));
+    }
+
+    @Test
+    void placementAndConfirmationInOneFlushLeaveOnlyTheNetChange() {
+        SalesRollupDeltas deltas = new SalesRollupDeltas();
+        deltas.add(order, OrderStatus.PENDING, 1);
+        deltas.add(order, OrderStatus.PENDING, -1);
+        deltas.add(order, OrderStatus.CONFIRMED, 1);
+
+        Map<SalesRollupDeltas.Key, SalesRollupDeltas.Delta> rows = deltas.nonZero();
+        assertThat(rows).doesNotContainKey(key(RollupGranularity.HOUR, RollupDimension.STATUS, "PENDING"));
+        assertThat(rows.get(key(RollupGranularity.HOUR, RollupDimension.STATUS, "CONFIRMED")).orders).isEqualTo(1);
+        assertThat(rows.get(key(RollupGranularity.HOUR, RollupDimension.TOTAL, SalesRollupDeltas.TOTAL_KEY)).orders).isEqualTo(1);
+    }
+}
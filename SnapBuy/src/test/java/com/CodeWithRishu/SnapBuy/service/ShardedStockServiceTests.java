@@ -0,0 +1,95 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.dto.ShardTotalRow;
+import com.CodeWithRishu.SnapBuy.repository.ProductRepository;
+import com.CodeWithRishu.SnapBuy.repository.ProductStockShardRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShardedStockServiceTests {
+
+    private ProductStockShardRepository shardRepository;
+    private ShardedStockService service;
+    // the product_stock_shards rows of product 1, by shard index
+    private int[] rows;
+
+    private void shards(int... quantities) {
+        rows = quantities;
+        shardRepository = mock(ProductStockShardRepository.class);
+        when(shardRepository.sumByProduct()).thenReturn(List.of(new ShardTotalRow(1L, rows.length, Arrays.stream(rows).sum())));
+        when(shardRepository.lockQuantities(1L)).thenAnswer(invocation -> Arrays.stream(rows).boxed().toList());
+        when(shardRepository.decrementShard(eq(1L), anyInt(), anyInt())).thenAnswer(invocation -> {
+            int index = invocation.getArgument(1);
+            int quantity = invocation.getArgument(2);
+            if (rows[index] < quantity) {
+                return 0;
+            }
+            rows[index] -= quantity;
+            return 1;
+        });
+        when(shardRepository.setShard(eq(1L), anyInt(), anyInt())).thenAnswer(invocation -> {
+            rows[(int) invocation.getArgument(1)] = invocation.getArgument(2);
+            return 1;
+        });
+        service = new ShardedStockService(shardRepository, mock(ProductRepository.class),
+                mock(CatalogFacetIndex.class), mock(PlatformTransactionManager.class), 8);
+        service.loadTotals();
+    }
+
+    @Test
+    void saleFromOneShardLeavesTheOthersUnlocked() {
+        shards(1, 1, 1, 1);
+
+        assertThat(service.decrement(1L, 1)).isTrue();
+
+        assertThat(service.totalStock(1L, 0)).isEqualTo(3);
+        verify(shardRepository, never()).lockQuantities(anyLong());
+    }
+
+    @Test
+    void saleLargerThanAnyShardRebalancesTheRest() {
+        shards(1, 1, 1, 1);
+
+        assertThat(service.decrement(1L, 3)).isTrue();
+
+        assertThat(rows).containsExactly(1, 0, 0, 0);
+        assertThat(service.totalStock(1L, 0)).isEqualTo(1);
+        assertThat(service.decrement(1L, 5)).isFalse();
+    }
+
+    @Test
+    void rebalanceAfterABulkDecrementInTheSameTransactionSeesIt() {
+        shards(2, 2, 2, 2);
+
+        // rebalance, then a single-shard decrement, then another rebalance, as one conversion of several holds would
+        assertThat(service.decrement(1L, 3)).isTrue();
+        assertThat(rows).containsExactly(2, 1, 1, 1);
+        assertThat(service.decrement(1L, 2)).isTrue();
+        assertThat(rows).containsExactly(0, 1, 1, 1);
+        assertThat(service.decrement(1L, 3)).isTrue();
+
+        assertThat(rows).containsOnly(0);
+        assertThat(service.decrement(1L, 1)).isFalse();
+        assertThat(service.totalStock(1L, 0)).isZero();
+    }
+
+    @Test
+    void unshardedProductsReportTheirOwnStock() {
+        shards(1);
+
+        assertThat(service.isSharded(2L)).isFalse();
+        assertThat(service.totalStock(2L, 17)).isEqualTo(17);
+    }
+}
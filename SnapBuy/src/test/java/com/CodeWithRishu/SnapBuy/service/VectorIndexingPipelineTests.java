@@ -0,0 +1,166 @@
+package com.CodeWithRishu.SnapBuy.service;
+
+import com.CodeWithRishu.SnapBuy.config.VectorIndexProp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VectorIndexingPipelineTests {
+
+    private final List<List<Document>> addedBatches = new ArrayList<>();
+    private final List<List<String>> deletedBatches = new ArrayList<>();
+    private boolean storeDown;
+    private VectorStore store;
+    private VectorIndexingPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        VectorStore simpleStore = SimpleVectorStore.builder(new HashingEmbeddingModel()).build();
+        store = new RecordingVectorStore(simpleStore);
+
+        VectorIndexProp prop = new VectorIndexProp();
+        prop.setBatchSize(2);
+        prop.setRetryBackoffMs(60_000);
+        // size-triggered flushes run inline so they cannot race the test's own flush()
+        pipeline = new VectorIndexingPipeline(store, prop, "snapbuy_vectors", Runnable::run);
+    }
+
+    @Test
+    void coalescesRepeatedUpdatesForTheSameProduct() {
+        pipeline.upsert(document("1", "Phone v1"));
+        pipeline.updateMetadata(document("1", "Phone v1"));
+        pipeline.upsert(document("1", "Phone v2"));
+
+        pipeline.flush();
+
+        assertThat(addedBatches).hasSize(1);
+        assertThat(addedBatches.getFirst()).extracting(Document::getText).containsExactly("Phone v2");
+    }
+
+    @Test
+    void flushesInBatchesOfConfiguredSize() {
+        for (int i = 1; i <= 5; i++) {
+            pipeline.upsert(document(String.valueOf(i), "Product " + i));
+        }
+
+        pipeline.flush();
+
+        assertThat(addedBatches).extracting(List::size).containsExactlyInAnyOrder(2, 2, 1);
+        assertThat(pipeline.pendingCount()).isZero();
+    }
+
+    @Test
+    void failedBatchStopsTheDrainAndBacksOff() {
+        storeDown = true;
+        pipeline.upsert(document("1", "Phone"));
+
+        pipeline.flush();
+        pipeline.flush();
+
+        assertThat(addedBatches).hasSize(1);
+        assertThat(pipeline.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void replacementsAndDeletesAreIdempotent() {
+        pipeline.upsert(document("7", "Laptop"));
+        pipeline.flush();
+        pipeline.upsert(document("7", "Laptop"));
+        pipeline.flush();
+
+        assertThat(store.similaritySearch(SearchRequest.builder().query("Laptop").topK(10).build()))
+                .extracting(Document::getId)
+                .containsExactly("7");
+
+        pipeline.upsert(document("7", "Laptop"));
+        pipeline.delete("7");
+        pipeline.flush();
+        pipeline.delete("7");
+        pipeline.flush();
+
+        assertThat(store.similaritySearch(SearchRequest.builder().query("Laptop").topK(10).build())).isEmpty();
+        assertThat(deletedBatches).hasSize(2);
+    }
+
+    private static Document document(String id, String text) {
+        return new Document(id, text, Map.of(ProductVectorIndexer.PRODUCT_ID, id));
+    }
+
+    private static class HashingEmbeddingModel implements EmbeddingModel {
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++) {
+                embeddings.add(new Embedding(vector(request.getInstructions().get(i)), i));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return vector(document.getText());
+        }
+
+        @Override
+        public int dimensions() {
+            return 8;
+        }
+
+        private static float[] vector(String text) {
+            float[] vector = new float[8];
+            for (int i = 0; i < text.length(); i++) {
+                vector[i % 8] += text.charAt(i);
+            }
+            return vector;
+        }
+    }
+
+    private class RecordingVectorStore implements VectorStore {
+
+        private final VectorStore delegate;
+
+        RecordingVectorStore(VectorStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void add(List<Document> documents) {
+            addedBatches.add(List.copyOf(documents));
+            if (storeDown) {
+                throw new IllegalStateException("vector store unavailable");
+            }
+            delegate.add(documents);
+        }
+
+        @Override
+        public void delete(List<String> idList) {
+            deletedBatches.add(List.copyOf(idList));
+            delegate.delete(idList);
+        }
+
+        @Override
+        public void delete(Filter.Expression filterExpression) {
+            delegate.delete(filterExpression);
+        }
+
+        @Override
+        public List<Document> similaritySearch(SearchRequest request) {
+            return delegate.similaritySearch(request);
+        }
+    }
+}
@@ -2,6 +2,8 @@ import React, { Fragment } from 'react';
 import { Link, useLocation, useNavigate, useSearchParams } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
 import { useCart } from '../context/CartContext';
+import { productAPI } from '../services/api';
+import type { Suggestion } from '../types';
 
 import { ShoppingCart, User, LogOut, Package, Plus, Menu as MenuIcon, X, Search, Shield } from 'lucide-react';
 import { Menu, Transition } from '@headlessui/react';
@@ -22,6 +24,27 @@ const Navbar: React.FC = () => {
     setSearchQuery(query || '');
   }, [searchParams]);
 
+  const [suggestions, setSuggestions] = React.useState<Suggestion[]>([]);
+
+  // typeahead: debounced, and answered from the server's in-memory prefix index rather than a search
+  React.useEffect(() => {
+    const prefix = searchQuery.trim();
+    if (prefix.length < 2) {
+      setSuggestions([]);
+      return;
+    }
+    let cancelled = false;
+    const timer = window.setTimeout(() => {
+      productAPI.suggest(prefix)
+        .then((res) => { if (!cancelled) setSuggestions(res.data); })
+        .catch(() => { if (!cancelled) setSuggestions([]); });
+    }, 150);
+    return () => {
+      cancelled = true;
+      window.clearTimeout(timer);
+    };
+  }, [searchQuery]);
+
   const handleSearch = (e: React.FormEvent) => {
     e.preventDefault();
     if (searchQuery.trim()) {
@@ -82,11 +105,21 @@ const Navbar: React.FC = () => {
                   type="text"
                   value={searchQuery}
                   onChange={(e) => setSearchQuery(e.target.value)}
+                  list="search-suggestions"
                   placeholder="Search products..."
                   className="w-[32rem] pl-10 pr-4 py-2 rounded-full bg-slate-100 dark:bg-white/5 border border-slate-300 dark:border-white/10 text-sm text-slate-900 dark:text-white placeholder-slate-500 dark:placeholder-slate-400 focus:outline-none focus:bg-slate-200 dark:focus:bg-white/10 focus:border-slate-400 dark:focus:border-white/30 focus:w-[48rem] transition-all duration-300 shadow-md dark:shadow-[0_8px_24px_rgba(0,0,0,0.2)] focus:shadow-lg focus:shadow-purple-500/20 dark:focus:shadow-[0_12px_32px_rgba(236,72,153,0.25)]"
                 />
                 <Search className="absolute left-3.5 w-4 h-4 text-slate-500 dark:text-slate-400 pointer-events-none group-focus-within:text-slate-700 dark:group-focus-within:text-white transition-colors" />
               </div>
+              <datalist id="search-suggestions">
+                {suggestions.map((suggestion) => (
+                  <option
+                    key={`${suggestion.type}-${suggestion.productId ?? suggestion.text}`}
+                    value={suggestion.text}
+                    label={suggestion.type === 'product' ? undefined : suggestion.type}
+                  />
+                ))}
+              </datalist>
             </form>
 
             {user?.roles?.includes('ADMIN') && (
@@ -303,6 +336,7 @@ const Navbar: React.FC = () => {
                   type="text"
                   value={searchQuery}
                   onChange={(e) => setSearchQuery(e.target.value)}
+                  list="search-suggestions"
                   placeholder="Search products..."
                   className="w-full pl-10 pr-4 py-2.5 rounded-xl bg-slate-100 dark:bg-white/5 border border-slate-300 dark:border-white/10 text-base text-slate-900 dark:text-white placeholder-slate-500 dark:placeholder-slate-400 focus:outline-none focus:bg-slate-200 dark:focus:bg-white/10 focus:border-slate-400 dark:focus:border-white/30 transition-all"
                 />
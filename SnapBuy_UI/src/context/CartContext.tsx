@@ -1,6 +1,8 @@
 import React, { createContext, useContext, useState, useEffect } from 'react';
 import type { ReactNode } from 'react';
 import type { CartItem, Product } from '../types';
+import { useAuth } from './AuthContext';
+import { cartAPI } from '../services/api';
 
 interface CartContextType {
   cart: CartItem[];
@@ -20,10 +22,26 @@ export const CartProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
     return savedCart ? JSON.parse(savedCart) : [];
   });
 
+  const { isAuthenticated } = useAuth();
+
   useEffect(() => {
     localStorage.setItem('cart', JSON.stringify(cart));
   }, [cart]);
 
+  // Mirror edits to the server cart; it persists them write-behind, so these calls stay cheap.
+  const syncServer = (request: () => Promise<unknown>) => {
+    if (isAuthenticated) {
+      request().catch((error) => console.warn('Unable to sync cart with server', error));
+    }
+  };
+
+  useEffect(() => {
+    if (isAuthenticated) {
+      syncServer(() => cartAPI.replace(cart.map((item) => ({ productId: item.product.id, quantity: item.quantity }))));
+    }
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [isAuthenticated]);
+
   const addToCart = (product: Product, quantity: number = 1) => {
     setCart((prevCart) => {
       const existingItem = prevCart.find((item) => item.product.id === product.id);
@@ -36,10 +54,12 @@ export const CartProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
       }
       return [...prevCart, { product, quantity }];
     });
+    syncServer(() => cartAPI.addItem({ productId: product.id, quantity }));
   };
 
   const removeFromCart = (productId: number) => {
     setCart((prevCart) => prevCart.filter((item) => item.product.id !== productId));
+    syncServer(() => cartAPI.removeItem(productId));
   };
 
   const updateQuantity = (productId: number, quantity: number) => {
@@ -52,10 +72,12 @@ export const CartProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
         item.product.id === productId ? { ...item, quantity } : item
       )
     );
+    syncServer(() => cartAPI.updateItem(productId, quantity));
   };
 
   const clearCart = () => {
     setCart([]);
+    syncServer(() => cartAPI.clear());
   };
 
   const getTotalPrice = () => {
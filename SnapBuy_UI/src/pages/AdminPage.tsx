@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { productAPI } from '../services/api';
+import { productAPI, productImageUrl, withStock } from '../services/api';
 import type { Product } from '../types';
 import { Package, IndianRupee, Tag, Layers, Calendar, FileText, Upload, Plus, CheckCircle2, AlertCircle, Sparkles, Trash2 } from 'lucide-react';
 
@@ -39,7 +39,7 @@ export default function AdminPage() {
   const fetchProducts = async () => {
     try {
       const response = await productAPI.getAll();
-      setProducts(response.data);
+      setProducts(await withStock(response.data));
     } catch (error) {
       console.error('Error fetching products:', error);
     }
@@ -496,9 +496,9 @@ export default function AdminPage() {
                       <tr key={product.id} className="border-b border-slate-100 dark:border-slate-800 hover:bg-slate-50 dark:hover:bg-slate-800/50 transition-colors">
                         <td className="py-4 px-4">
                           <div className="w-12 h-12 rounded-lg bg-slate-100 dark:bg-slate-700 overflow-hidden">
-                            {product.imageData ? (
+                            {product.imageName ? (
                               <img
-                                src={`data:image/jpeg;base64,${product.imageData}`}
+                                src={productImageUrl(product, 160)}
                                 alt={product.name}
                                 className="w-full h-full object-cover"
                               />
@@ -1,6 +1,7 @@
 import React, { useEffect, useState } from 'react';
 import { Link, useNavigate } from 'react-router-dom';
 import { useCart } from '../context/CartContext';
+import { productImageUrl } from '../services/api';
 import { useAuth } from '../context/AuthContext';
 import { Trash2, Plus, Minus, ShoppingBag, ArrowRight, ArrowLeft, Sparkles } from 'lucide-react';
 
@@ -58,9 +59,9 @@ const CartPage: React.FC = () => {
               >
                 {/* Image */}
                 <div className="w-full sm:w-32 h-32 bg-slate-100 dark:bg-slate-700 rounded-xl overflow-hidden flex-shrink-0 group relative">
-                  {item.product.imageData ? (
+                  {item.product.imageName ? (
                     <img
-                      src={`data:image/jpeg;base64,${item.product.imageData}`}
+                      src={productImageUrl(item.product, 160)}
                       alt={item.product.name}
                       className="w-full h-full object-cover group-hover:scale-110 transition-transform duration-500"
                     />
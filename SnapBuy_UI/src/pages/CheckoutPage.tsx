@@ -2,8 +2,8 @@ import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { useCart } from '../context/CartContext';
 import { useAuth } from '../context/AuthContext';
-import { orderAPI, paymentAPI } from '../services/api';
-import type { Address, OrderRequest, StripeRequest } from '../types';
+import { cartAPI, paymentAPI, productImageUrl } from '../services/api';
+import type { Address, StripeRequest } from '../types';
 import { CreditCard, MapPin, Truck, CheckCircle2, AlertCircle, Sparkles, Wallet } from 'lucide-react';
 
 const CheckoutPage: React.FC = () => {
@@ -53,35 +53,23 @@ const CheckoutPage: React.FC = () => {
     setLoading(true);
 
     try {
-      const orderRequest: OrderRequest = {
-        customerName: customerName.trim(),
-        email: customerEmail.trim(),
-        items: cart.map((item) => ({
-          productId: item.product.id,
-          quantity: item.quantity,
-        })),
-      };
-
-      await orderAPI.place(orderRequest);
-
-      const totalAmountInCents = Math.round(getTotalPrice() * 100);
-      const totalQuantity = cart.reduce((total, item) => total + item.quantity, 0);
+      // Replace the server cart with what the user sees, then let the server revalidate and place the order.
+      await cartAPI.replace(cart.map((item) => ({ productId: item.product.id, quantity: item.quantity })));
+      const orderResponse = await cartAPI.checkout(customerName.trim(), paymentMethod === 'stripe' ? 'STRIPE' : 'COD');
 
       if (paymentMethod === 'stripe') {
         let redirectUrl: string | undefined;
 
-        if (totalAmountInCents > 0 && totalQuantity > 0) {
+        if (getTotalPrice() > 0) {
           const stripeRequest: StripeRequest = {
-            productName: `SnapBuy Order for ${customerName || 'customer'}`,
-            quantity: totalQuantity,
-            amount: totalAmountInCents,
+            orderId: orderResponse.data.orderId,
             currency: 'inr',
           };
 
           const stripeResponse = await paymentAPI.initiateStripe(stripeRequest);
           redirectUrl = stripeResponse.data.sessionUrl || stripeResponse.data.url;
         } else {
-          console.warn('Skipping Stripe payment because amount or quantity is invalid.');
+          console.warn('Skipping Stripe payment because the order total is zero.');
         }
 
         clearCart();
@@ -316,9 +304,9 @@ const CheckoutPage: React.FC = () => {
                 {cart.map((item, index) => (
                   <div key={item.product.id} className={`flex gap-3 p-3 rounded-xl bg-slate-50 dark:bg-slate-700/50 animate-slide-in-bottom`} style={{ animationDelay: `${index * 50}ms` }}>
                     <div className="w-16 h-16 bg-slate-100 dark:bg-slate-700 rounded-lg overflow-hidden flex-shrink-0">
-                      {item.product.imageData ? (
+                      {item.product.imageName ? (
                         <img
-                          src={`data:image/jpeg;base64,${item.product.imageData}`}
+                          src={productImageUrl(item.product, 160)}
                           alt={item.product.name}
                           className="w-full h-full object-cover"
                         />
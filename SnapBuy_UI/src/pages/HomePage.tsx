@@ -1,6 +1,6 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate, useSearchParams } from 'react-router-dom';
-import { productAPI } from '../services/api';
+import { productAPI, productImageUrl, withStock } from '../services/api';
 import type { Product } from '../types';
 import { Search, ShoppingCart, ArrowRight, Sparkles, ChevronLeft, ChevronRight, ArrowUpDown } from 'lucide-react';
 import { useCart } from '../context/CartContext';
@@ -99,12 +99,12 @@ const HomePage: React.FC = () => {
       if (activeCategory === 'All') {
         // Use paginated API for 'All' category
         const response = await productAPI.getPaginated(page, size, sortBy, sortDirection);
-        setProducts(response.data.content);
+        setProducts(await withStock(response.data.content));
         setTotalPages(response.data.totalPages);
       } else {
         // Fetch all products for specific categories (client-side filtering)
         const response = await productAPI.getAll();
-        setProducts(response.data);
+        setProducts(await withStock(response.data));
         setTotalPages(0); // Hide pagination for category filtering
       }
     } catch (error) {
@@ -120,7 +120,7 @@ const HomePage: React.FC = () => {
     try {
       setLoading(true);
       const response = await productAPI.search(keyword);
-      setProducts(response.data);
+      setProducts(await withStock(response.data));
     } catch (error) {
       console.error('Failed to search products:', error);
     } finally {
@@ -376,7 +376,8 @@ const HomePage: React.FC = () => {
               >
                 <div className="relative aspect-[4/3] overflow-hidden bg-slate-100 dark:bg-slate-700">
                   <img
-                    src={product.imageData ? `data:image/jpeg;base64,${product.imageData}` : 'https://images.unsplash.com/photo-1505740420928-5e560c06d30e?w=500&q=80'}
+                    src={productImageUrl(product, 480) ?? 'https://images.unsplash.com/photo-1505740420928-5e560c06d30e?w=500&q=80'}
+                    loading="lazy"
                     alt={product.name}
                     className="w-full h-full object-cover transform group-hover:scale-110 transition-transform duration-700"
                   />
@@ -3,6 +3,10 @@ import type {
   AuthRequest,
   JwtResponse,
   Product,
+  ProductStock,
+  Suggestion,
+  CartItemRequest,
+  CartResponse,
   User,
   OrderRequest,
   OrderResponse,
@@ -98,10 +102,19 @@ export const authAPI = {
   googleSignIn: (credential: string) => api.post<JwtResponse>('/auth/google', { credential }),
 };
 
+// Thumbnail URL for <img> tags; the content hash makes the URL immutable so browsers cache it for good
+export const productImageUrl = (product: Pick<Product, 'id' | 'imageName' | 'imageHash'>, width: number) =>
+  product.imageName
+    ? `${API_BASE_URL}/products/${product.id}/image?w=${width}${product.imageHash ? `&v=${product.imageHash}` : ''}`
+    : undefined;
+
 export const productAPI = {
   getAll: () => api.get<Product[]>('/products'),
   getById: (id: number) => api.get<Product>(`/products/${id}`),
   search: (keyword: string) => api.get<Product[]>(`/products/search?keyword=${keyword}`),
+  stock: (ids: number[]) => api.get<ProductStock[]>(`/products/stock?ids=${ids.join(',')}`),
+  suggest: (prefix: string, limit = 8) =>
+    api.get<Suggestion[]>(`/products/suggest?q=${encodeURIComponent(prefix)}&limit=${limit}`),
   getPaginated: (page: number, size: number, sortBy: string, sortDirection: string) =>
     api.get<{ content: Product[], totalPages: number, totalElements: number }>(`/products/pagination-sorting?page=${page}&size=${size}&sortBy=${sortBy}&sortDirection=${sortDirection}`),
   create: (product: FormData) => api.post<Product>('/products', product, { headers: { 'Content-Type': 'multipart/form-data' } }),
@@ -113,11 +126,33 @@ export const productAPI = {
     api.post<Blob>(`/products/generate-image?name=${encodeURIComponent(name)}&category=${encodeURIComponent(category)}&description=${encodeURIComponent(description)}`, null, { responseType: 'blob' }),
 };
 
+// Catalog responses leave stock out so sales don't invalidate them; fill it in from the live stock endpoint
+const STOCK_BATCH = 100;
+export const withStock = async (products: Product[]): Promise<Product[]> => {
+  const available = new Map<number, number>();
+  for (let i = 0; i < products.length; i += STOCK_BATCH) {
+    const response = await productAPI.stock(products.slice(i, i + STOCK_BATCH).map(product => product.id));
+    response.data.forEach(stock => available.set(stock.productId, stock.available));
+  }
+  return products.map(product => ({ ...product, stockQuantity: available.get(product.id) ?? 0 }));
+};
+
 export const orderAPI = {
   place: (order: OrderRequest) => api.post<OrderResponse>('/orders/place', order),
   getAll: () => api.get<OrderResponse[]>('/orders/allOrders'),
 };
 
+export const cartAPI = {
+  get: () => api.get<CartResponse>('/cart'),
+  replace: (items: CartItemRequest[]) => api.put<CartResponse>('/cart', items),
+  addItem: (item: CartItemRequest) => api.post<CartResponse>('/cart/items', item),
+  updateItem: (productId: number, quantity: number) => api.put<CartResponse>(`/cart/items/${productId}?quantity=${quantity}`),
+  removeItem: (productId: number) => api.delete<CartResponse>(`/cart/items/${productId}`),
+  clear: () => api.delete('/cart'),
+  checkout: (customerName: string, paymentMethod: 'STRIPE' | 'COD') =>
+    api.post<OrderResponse>('/cart/checkout', { customerName, paymentMethod }),
+};
+
 export const paymentAPI = {
   initiateStripe: (payload: StripeRequest) => api.post<StripeResponse>('/payments/stripe', payload),
 };
@@ -5,7 +5,21 @@ export interface Product {
   price: number;
   category: string;
   stockQuantity: number;
-  imageData?: string;
+  imageName?: string;
+  imageHash?: string;
+}
+
+export interface ProductStock {
+  productId: number;
+  available: number;
+  inStock: boolean;
+}
+
+export interface Suggestion {
+  type: 'product' | 'brand' | 'category';
+  text: string;
+  productId: number | null;
+  weight: number;
 }
 
 export const Role = {
@@ -42,6 +56,28 @@ export interface CartItem {
   quantity: number;
 }
 
+export interface CartItemRequest {
+  productId: number;
+  quantity: number;
+}
+
+export interface CartLineResponse {
+  productId: number;
+  productName: string | null;
+  unitPrice: number | null;
+  quantity: number;
+  lineTotal: number | null;
+  availableStock: number;
+  problem: string | null;
+}
+
+export interface CartResponse {
+  items: CartLineResponse[];
+  totalItems: number;
+  totalPrice: number;
+  valid: boolean;
+}
+
 export interface OrderItemRequest {
   productId: number;
   quantity: number;
@@ -79,9 +115,7 @@ export interface OrderResponse {
 }
 
 export interface StripeRequest {
-  productName: string;
-  quantity: number;
-  amount: number;
+  orderId: string;
   currency: string;
 }
 